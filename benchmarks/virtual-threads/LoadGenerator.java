@@ -0,0 +1,110 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class LoadGenerator {
+
+    private static final String DEFAULT_BASE_URL = "http://localhost:8080";
+    private static final String DEFAULT_RATES = "50,100,200,400";
+    private static final int DEFAULT_STEP_SECONDS = 20;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final double P50 = 0.50;
+    private static final double P99 = 0.99;
+    private static final long NANOS_IN_A_SECOND = 1_000_000_000L;
+    private static final double NANOS_IN_A_MILLI = 1_000_000.0;
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = args.length > 0 ? args[0] : DEFAULT_BASE_URL;
+        int[] rates = Arrays.stream((args.length > 1 ? args[1] : DEFAULT_RATES).split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int stepSeconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_STEP_SECONDS;
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        System.out.println("| Target RPS | Achieved RPS | p50 (ms) | p99 (ms) | Errors |");
+        System.out.println("|-----------:|-------------:|---------:|---------:|-------:|");
+
+        for (int rate : rates) {
+            runStep(httpClient, baseUrl, rate, stepSeconds);
+        }
+    }
+
+    private static void runStep(HttpClient httpClient, String baseUrl, int rate, int stepSeconds)
+            throws InterruptedException {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long intervalNanos = NANOS_IN_A_SECOND / rate;
+        long totalRequests = (long) rate * stepSeconds;
+        long stepStart = System.nanoTime();
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long request = 0; request < totalRequests; request++) {
+                long intendedStart = stepStart + request * intervalNanos;
+                LockSupport.parkNanos(intendedStart - System.nanoTime());
+                requests.execute(() -> send(httpClient, baseUrl, intendedStart, latencies, errors));
+            }
+            requests.shutdown();
+            requests.awaitTermination(REQUEST_TIMEOUT.toSeconds() * 2, TimeUnit.SECONDS);
+        }
+
+        double elapsedSeconds = (System.nanoTime() - stepStart) / (double) NANOS_IN_A_SECOND;
+        List<Long> sorted = new ArrayList<>(latencies);
+        sorted.sort(Long::compare);
+
+        System.out.printf(Locale.ROOT, "| %10d | %12.1f | %8.1f | %8.1f | %5.2f%% |%n",
+                rate,
+                sorted.size() / elapsedSeconds,
+                percentile(sorted, P50),
+                percentile(sorted, P99),
+                100.0 * errors.get() / totalRequests);
+    }
+
+    private static void send(HttpClient httpClient, String baseUrl, long intendedStart,
+                             ConcurrentLinkedQueue<Long> latencies, AtomicLong errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String uri = String.format(Locale.ROOT, "%s/weather/forecast?latitude=%.4f&longitude=%.4f",
+                baseUrl, random.nextDouble(-60, 60), random.nextDouble(-170, 170));
+
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+
+            if (response.statusCode() == 200) {
+                latencies.add(System.nanoTime() - intendedStart);
+            } else {
+                errors.incrementAndGet();
+            }
+        } catch (Exception e) {
+            errors.incrementAndGet();
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return Double.NaN;
+        }
+
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+
+        return sorted.get(Math.max(index, 0)) / NANOS_IN_A_MILLI;
+    }
+}
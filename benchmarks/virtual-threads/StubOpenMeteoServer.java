@@ -0,0 +1,102 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+public class StubOpenMeteoServer {
+
+    private static final int DEFAULT_PORT = 9090;
+    private static final long DEFAULT_LATENCY_MILLIS = 100;
+    private static final int HOURS_IN_A_DAY = 24;
+    private static final int BACKLOG = 4096;
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        long latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_LATENCY_MILLIS;
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.createContext("/v1/forecast", exchange -> handle(exchange, latencyMillis));
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+
+        System.out.printf("Stub Open-Meteo listening on http://localhost:%d/v1/forecast with %d ms latency%n",
+                port, latencyMillis);
+    }
+
+    private static void handle(HttpExchange exchange, long latencyMillis) throws IOException {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Map<String, String> query = parseQuery(exchange.getRequestURI());
+        byte[] body = forecastJson(query).getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static String forecastJson(Map<String, String> query) {
+        LocalDate startDate = LocalDate.parse(query.getOrDefault("start_date", LocalDate.now().toString()));
+        LocalDate endDate = LocalDate.parse(query.getOrDefault("end_date", startDate.toString()));
+
+        StringBuilder time = new StringBuilder();
+        StringBuilder weatherCode = new StringBuilder();
+        StringBuilder maxTemp = new StringBuilder();
+        StringBuilder minTemp = new StringBuilder();
+        StringBuilder sunshine = new StringBuilder();
+        StringBuilder pressure = new StringBuilder();
+        int day = 0;
+
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1), day++) {
+            String separator = day == 0 ? "" : ",";
+            time.append(separator).append('"').append(date).append('"');
+            weatherCode.append(separator).append(day % 2 == 0 ? 3 : 61);
+            maxTemp.append(separator).append(String.format(Locale.ROOT, "%.1f", 5.0 + day));
+            minTemp.append(separator).append(String.format(Locale.ROOT, "%.1f", -1.0 + day));
+            sunshine.append(separator).append(String.format(Locale.ROOT, "%.2f", 10_000.0 + day * 500));
+
+            for (int hour = 0; hour < HOURS_IN_A_DAY; hour++) {
+                pressure.append(day == 0 && hour == 0 ? "" : ",")
+                        .append(String.format(Locale.ROOT, "%.1f", 1013.0 + (hour % 6) * 0.3));
+            }
+        }
+
+        return "{\"latitude\":" + query.getOrDefault("latitude", "0") + ",\"longitude\":"
+                + query.getOrDefault("longitude", "0") + ",\"hourly\":{\"pressure_msl\":[" + pressure + "]},"
+                + "\"daily\":{\"time\":[" + time + "],\"weather_code\":[" + weatherCode + "],"
+                + "\"temperature_2m_max\":[" + maxTemp + "],\"temperature_2m_min\":[" + minTemp + "],"
+                + "\"sunshine_duration\":[" + sunshine + "]}}";
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        Map<String, String> query = new HashMap<>();
+        String rawQuery = uri.getRawQuery();
+
+        if (rawQuery == null) {
+            return query;
+        }
+
+        for (String parameter : rawQuery.split("&")) {
+            int separatorIndex = parameter.indexOf('=');
+            if (separatorIndex > 0) {
+                query.put(parameter.substring(0, separatorIndex), parameter.substring(separatorIndex + 1));
+            }
+        }
+
+        return query;
+    }
+}
@@ -0,0 +1,25 @@
+package com.codibly.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+final class BenchmarkPayloads {
+
+    static final String ONE_DAY_FORECAST = "/open-meteo/one-day-forecast.json";
+    static final String SEVEN_DAY_FORECAST = "/open-meteo/seven-day-forecast.json";
+
+    private BenchmarkPayloads() {
+    }
+
+    static byte[] read(String path) {
+        try (InputStream inputStream = BenchmarkPayloads.class.getResourceAsStream(path)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Missing benchmark payload " + path);
+            }
+            return inputStream.readAllBytes();
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.codibly.benchmarks;
+
+import com.codibly.enums.WeatherCategory;
+import com.codibly.enums.WeatherCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeatherCodeBenchmark {
+
+    @Param({"0", "61", "99", "42"})
+    private int code;
+
+    @Benchmark
+    public WeatherCategory getCategoryForCode() {
+        return WeatherCode.getCategoryForCode(code);
+    }
+}
@@ -0,0 +1,60 @@
+package com.codibly.benchmarks;
+
+import com.codibly.config.JacksonConfig;
+import com.codibly.dtos.WeatherDTO;
+import com.codibly.dtos.WeatherForecastDTO;
+import com.codibly.dtos.WeatherSummaryDTO;
+import com.codibly.mappers.WeatherDTOMapper;
+import com.codibly.mappers.WeatherJacksonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeatherDTOMapperBenchmark {
+
+    private WeatherDTOMapper weatherDTOMapper;
+    private List<WeatherDTO> weeklyWeather;
+
+    @Setup
+    public void setUp() {
+        WeatherJacksonMapper weatherJacksonMapper = new WeatherJacksonMapper(new JacksonConfig().objectMapper());
+
+        weatherDTOMapper = new WeatherDTOMapper();
+        weeklyWeather = weatherJacksonMapper.mapWeatherRange(
+                BenchmarkPayloads.read(BenchmarkPayloads.SEVEN_DAY_FORECAST));
+    }
+
+    @Benchmark
+    public void toForecastDTO(Blackhole blackhole) {
+        for (WeatherDTO weatherDTO : weeklyWeather) {
+            blackhole.consume(weatherDTOMapper.toForecastDTO(weatherDTO));
+        }
+    }
+
+    @Benchmark
+    public WeatherSummaryDTO toSummaryDTO() {
+        return weatherDTOMapper.toSummaryDTO(weeklyWeather);
+    }
+
+    @Benchmark
+    public WeatherForecastDTO toForecastDTOSingleDay() {
+        return weatherDTOMapper.toForecastDTO(weeklyWeather.get(0));
+    }
+}
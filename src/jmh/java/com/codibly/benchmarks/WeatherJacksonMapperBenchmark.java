@@ -0,0 +1,48 @@
+package com.codibly.benchmarks;
+
+import com.codibly.config.JacksonConfig;
+import com.codibly.dtos.WeatherDTO;
+import com.codibly.mappers.WeatherJacksonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeatherJacksonMapperBenchmark {
+
+    private WeatherJacksonMapper weatherJacksonMapper;
+    private byte[] oneDayPayload;
+    private byte[] sevenDayPayload;
+
+    @Setup
+    public void setUp() {
+        weatherJacksonMapper = new WeatherJacksonMapper(new JacksonConfig().objectMapper());
+        oneDayPayload = BenchmarkPayloads.read(BenchmarkPayloads.ONE_DAY_FORECAST);
+        sevenDayPayload = BenchmarkPayloads.read(BenchmarkPayloads.SEVEN_DAY_FORECAST);
+    }
+
+    @Benchmark
+    public WeatherDTO mapWeatherOneDay() {
+        return weatherJacksonMapper.mapWeather(oneDayPayload);
+    }
+
+    @Benchmark
+    public List<WeatherDTO> mapWeatherRangeSevenDays() {
+        return weatherJacksonMapper.mapWeatherRange(sevenDayPayload);
+    }
+}
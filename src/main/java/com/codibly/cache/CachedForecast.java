@@ -0,0 +1,8 @@
+package com.codibly.cache;
+
+import com.codibly.dtos.WeatherDTO;
+
+import java.time.Instant;
+
+record CachedForecast(WeatherDTO weatherDTO, Instant expiresAt) {
+}
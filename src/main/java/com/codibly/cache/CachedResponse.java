@@ -0,0 +1,12 @@
+package com.codibly.cache;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record CachedResponse(LocalDate firstDate, byte[] body, String etag, byte[] gzippedBody, String gzippedEtag,
+                             Instant freshUntil) {
+
+    public boolean hasGzippedBody() {
+        return gzippedBody != null;
+    }
+}
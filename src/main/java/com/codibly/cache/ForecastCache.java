@@ -0,0 +1,332 @@
+package com.codibly.cache;
+
+import com.codibly.config.CacheProperties;
+import com.codibly.dtos.WeatherDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+public class ForecastCache {
+
+    private final CacheProperties cacheProperties;
+    private final ForecastStore forecastStore;
+    private final Clock clock;
+    private final ForecastCacheStorage storage;
+    private final FrequencySketch accessSketch;
+    private final ConcurrentMap<Long, LocationCell> trackedLocations = new ConcurrentHashMap<>();
+    private final Set<ForecastKey> revalidationsInFlight = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<ForecastKey>> changeListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    @Autowired
+    public ForecastCache(CacheProperties cacheProperties, ForecastStore forecastStore) {
+        this(cacheProperties, forecastStore, Clock.systemDefaultZone());
+    }
+
+    ForecastCache(CacheProperties cacheProperties, ForecastStore forecastStore, Clock clock) {
+        this.cacheProperties = cacheProperties;
+        this.forecastStore = forecastStore;
+        this.clock = clock;
+        this.storage = createStorage(cacheProperties);
+        this.accessSketch = new FrequencySketch(cacheProperties.getRefresh().getTrackedLocations());
+    }
+
+    @PostConstruct
+    public void warmFromStore() {
+        if (!cacheProperties.isEnabled()) {
+            return;
+        }
+
+        for (StoredForecast storedForecast : forecastStore.load(this::isLive)) {
+            store(storedForecast.key(), storedForecast.weatherDTO(), storedForecast.fetchedAt());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${weather.store.compaction-interval:PT1H}",
+            initialDelayString = "${weather.store.compaction-interval:PT1H}")
+    public void compactStore() {
+        forecastStore.compact(this::isLive);
+    }
+
+    public CompletableFuture<List<WeatherDTO>> getRange(double latitude, double longitude, LocalDate startDate,
+                                                        LocalDate endDate, RangeLoader loader) {
+        if (!cacheProperties.isEnabled()) {
+            return loader.load(startDate, endDate);
+        }
+
+        recordAccess(latitude, longitude);
+
+        Instant now = clock.instant();
+        List<WeatherDTO> freshDays = new ArrayList<>();
+        List<WeatherDTO> staleDays = new ArrayList<>();
+        LocalDate firstMissingDate = null;
+        LocalDate lastMissingDate = null;
+        LocalDate firstStaleDate = null;
+        LocalDate lastStaleDate = null;
+
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            CachedForecast cachedDay = storage.get(keyFor(latitude, longitude, date), now);
+
+            if (cachedDay == null) {
+                misses.increment();
+                firstMissingDate = firstMissingDate == null ? date : firstMissingDate;
+                lastMissingDate = date;
+            } else if (isFresh(cachedDay, now)) {
+                hits.increment();
+                freshDays.add(cachedDay.weatherDTO());
+            } else {
+                staleHits.increment();
+                staleDays.add(cachedDay.weatherDTO());
+                firstStaleDate = firstStaleDate == null ? date : firstStaleDate;
+                lastStaleDate = date;
+            }
+        }
+
+        if (firstMissingDate == null) {
+            if (firstStaleDate != null) {
+                revalidate(latitude, longitude, firstStaleDate, lastStaleDate, loader);
+            }
+            return CompletableFuture.completedFuture(mergeByDate(freshDays, staleDays));
+        }
+
+        // the caller waits for missing days anyway, so stale days are refreshed in the same call
+        LocalDate loadStartDate = firstStaleDate != null && firstStaleDate.isBefore(firstMissingDate)
+                ? firstStaleDate : firstMissingDate;
+        LocalDate loadEndDate = lastStaleDate != null && lastStaleDate.isAfter(lastMissingDate)
+                ? lastStaleDate : lastMissingDate;
+
+        return loader.load(loadStartDate, loadEndDate).thenApply(loadedDays -> {
+            putAll(latitude, longitude, loadedDays);
+            return mergeByDate(mergeByDate(freshDays, loadedDays), staleDays);
+        });
+    }
+
+    public Optional<List<WeatherDTO>> getCompleteRange(double latitude, double longitude, LocalDate startDate,
+                                                       LocalDate endDate) {
+        if (!cacheProperties.isEnabled()) {
+            return Optional.empty();
+        }
+
+        recordAccess(latitude, longitude);
+
+        List<WeatherDTO> cachedDays = new ArrayList<>();
+
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            Optional<WeatherDTO> cachedDay = get(latitude, longitude, date);
+
+            if (cachedDay.isEmpty()) {
+                return Optional.empty();
+            }
+            cachedDays.add(cachedDay.get());
+        }
+
+        return Optional.of(cachedDays);
+    }
+
+    public Optional<WeatherDTO> get(double latitude, double longitude, LocalDate date) {
+        Instant now = clock.instant();
+        CachedForecast cachedDay = storage.get(keyFor(latitude, longitude, date), now);
+
+        if (cachedDay == null || !isFresh(cachedDay, now)) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(cachedDay.weatherDTO());
+    }
+
+    public boolean needsRefresh(double latitude, double longitude, LocalDate startDate, LocalDate endDate,
+                                Duration aheadOfExpiry) {
+        Instant now = clock.instant();
+        Instant refreshBefore = now.plus(aheadOfExpiry);
+
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            CachedForecast cachedDay = storage.get(keyFor(latitude, longitude, date), now);
+
+            if (cachedDay == null || !freshUntil(cachedDay).isAfter(refreshBefore)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public Duration remainingFreshness(double latitude, double longitude, LocalDate startDate, LocalDate endDate) {
+        if (!cacheProperties.isEnabled()) {
+            return Duration.ZERO;
+        }
+
+        Instant now = clock.instant();
+        Instant freshUntil = null;
+
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            CachedForecast cachedDay = storage.get(keyFor(latitude, longitude, date), now);
+
+            if (cachedDay == null || !isFresh(cachedDay, now)) {
+                return Duration.ZERO;
+            }
+            if (freshUntil == null || freshUntil(cachedDay).isBefore(freshUntil)) {
+                freshUntil = freshUntil(cachedDay);
+            }
+        }
+
+        return freshUntil != null ? Duration.between(now, freshUntil) : Duration.ZERO;
+    }
+
+    public List<HotLocation> hotLocations(int limit) {
+        trackedLocations.keySet().removeIf(cell -> accessSketch.frequency(cell) == 0);
+
+        return trackedLocations.entrySet().stream()
+                .map(entry -> new HotLocation(entry.getValue().latitude(), entry.getValue().longitude(),
+                        accessSketch.frequency(entry.getKey())))
+                .sorted(Comparator.comparingInt(HotLocation::frequency).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void putAll(double latitude, double longitude, List<WeatherDTO> weatherDataList) {
+        for (WeatherDTO weatherDTO : weatherDataList) {
+            put(latitude, longitude, weatherDTO);
+        }
+    }
+
+    public void put(double latitude, double longitude, WeatherDTO weatherDTO) {
+        if (!cacheProperties.isEnabled() || weatherDTO.getDate() == null) {
+            return;
+        }
+
+        ForecastKey key = keyFor(latitude, longitude, weatherDTO.getDate());
+        Instant fetchedAt = clock.instant();
+
+        store(key, weatherDTO, fetchedAt);
+        forecastStore.append(new StoredForecast(key, weatherDTO, fetchedAt));
+        changeListeners.forEach(listener -> listener.accept(key));
+    }
+
+    public ForecastKey keyFor(double latitude, double longitude, LocalDate date) {
+        return ForecastKey.of(latitude, longitude, date, cacheProperties.getGridSizeDegrees());
+    }
+
+    public ForecastCacheStats stats() {
+        return new ForecastCacheStats(hits.sum(), misses.sum(), staleHits.sum(), revalidations.sum(),
+                storage.evictions(), storage.size());
+    }
+
+    void addChangeListener(Consumer<ForecastKey> listener) {
+        changeListeners.add(listener);
+    }
+
+    void recordAccess(double latitude, double longitude) {
+        long cell = keyFor(latitude, longitude, LocalDate.EPOCH).packedCell();
+
+        accessSketch.increment(cell);
+        if (trackedLocations.size() < cacheProperties.getRefresh().getTrackedLocations()) {
+            trackedLocations.putIfAbsent(cell, new LocationCell(latitude, longitude));
+        }
+    }
+
+    private static ForecastCacheStorage createStorage(CacheProperties cacheProperties) {
+        CacheProperties.OffHeap offHeap = cacheProperties.getOffHeap();
+
+        return offHeap.isEnabled()
+                ? new OffHeapForecastStorage(cacheProperties.getMaxEntries(), offHeap.getSlotBytes())
+                : new OnHeapForecastStorage(cacheProperties.getMaxEntries());
+    }
+
+    private void store(ForecastKey key, WeatherDTO weatherDTO, Instant fetchedAt) {
+        storage.put(key, weatherDTO, fetchedAt.plus(retentionFor(key.date())), clock.instant());
+    }
+
+    private void revalidate(double latitude, double longitude, LocalDate startDate, LocalDate endDate,
+                            RangeLoader loader) {
+        ForecastKey revalidationKey = keyFor(latitude, longitude, startDate);
+
+        if (!revalidationsInFlight.add(revalidationKey)) {
+            return;
+        }
+
+        revalidations.increment();
+        try {
+            loader.load(startDate, endDate).whenComplete((loadedDays, error) -> {
+                revalidationsInFlight.remove(revalidationKey);
+
+                if (error != null) {
+                    log.warn("Background revalidation failed for {}", revalidationKey, error);
+                } else {
+                    putAll(latitude, longitude, loadedDays);
+                }
+            });
+        } catch (RuntimeException error) {
+            revalidationsInFlight.remove(revalidationKey);
+            log.warn("Background revalidation failed for {}", revalidationKey, error);
+        }
+    }
+
+    private boolean isLive(StoredForecast storedForecast) {
+        LocalDate date = storedForecast.key().date();
+
+        return !date.isBefore(LocalDate.now(clock))
+                && clock.instant().isBefore(storedForecast.fetchedAt().plus(retentionFor(date)));
+    }
+
+    private boolean isFresh(CachedForecast cachedDay, Instant now) {
+        return now.isBefore(freshUntil(cachedDay));
+    }
+
+    private Instant freshUntil(CachedForecast cachedDay) {
+        return cachedDay.expiresAt().minus(cacheProperties.getStaleWhileRevalidate());
+    }
+
+    private Duration retentionFor(LocalDate date) {
+        return ttlFor(date).plus(cacheProperties.getStaleWhileRevalidate());
+    }
+
+    private Duration ttlFor(LocalDate date) {
+        return date.equals(LocalDate.now(clock)) ? cacheProperties.getTodayTtl() : cacheProperties.getTtl();
+    }
+
+    private List<WeatherDTO> mergeByDate(List<WeatherDTO> cachedDays, List<WeatherDTO> loadedDays) {
+        List<WeatherDTO> merged = new ArrayList<>(cachedDays.size() + loadedDays.size());
+        merged.addAll(cachedDays);
+        loadedDays.stream()
+                .filter(loadedDay -> cachedDays.stream().noneMatch(
+                        cachedDay -> cachedDay.getDate().equals(loadedDay.getDate())))
+                .forEach(merged::add);
+        merged.sort(Comparator.comparing(WeatherDTO::getDate));
+
+        return merged;
+    }
+
+    @FunctionalInterface
+    public interface RangeLoader {
+
+        CompletableFuture<List<WeatherDTO>> load(LocalDate startDate, LocalDate endDate);
+    }
+
+    private record LocationCell(double latitude, double longitude) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.codibly.cache;
+
+public record ForecastCacheStats(long hits, long misses, long staleHits, long revalidations, long evictions,
+                                 int size) {
+}
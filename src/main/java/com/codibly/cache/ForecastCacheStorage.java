@@ -0,0 +1,16 @@
+package com.codibly.cache;
+
+import com.codibly.dtos.WeatherDTO;
+
+import java.time.Instant;
+
+interface ForecastCacheStorage {
+
+    CachedForecast get(ForecastKey key, Instant now);
+
+    void put(ForecastKey key, WeatherDTO weatherDTO, Instant expiresAt, Instant now);
+
+    int size();
+
+    long evictions();
+}
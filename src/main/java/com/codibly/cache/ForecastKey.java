@@ -0,0 +1,32 @@
+package com.codibly.cache;
+
+import java.time.LocalDate;
+
+public record ForecastKey(int latitudeCell, int longitudeCell, LocalDate date) {
+
+    private static final int DAY_BITS = 21;
+    private static final int LONGITUDE_BITS = 22;
+    private static final int LATITUDE_SHIFT = DAY_BITS + LONGITUDE_BITS;
+    private static final long DAY_MASK = (1L << DAY_BITS) - 1;
+    private static final long LONGITUDE_MASK = (1L << LONGITUDE_BITS) - 1;
+    private static final int CELL_SHIFT = 32;
+    private static final long CELL_MASK = 0xFFFFFFFFL;
+
+    public static ForecastKey of(double latitude, double longitude, LocalDate date, double gridSizeDegrees) {
+        return new ForecastKey(
+                (int) Math.round(latitude / gridSizeDegrees),
+                (int) Math.round(longitude / gridSizeDegrees),
+                date
+        );
+    }
+
+    public long packed() {
+        return ((long) latitudeCell << LATITUDE_SHIFT)
+                | ((longitudeCell & LONGITUDE_MASK) << DAY_BITS)
+                | (date.toEpochDay() & DAY_MASK);
+    }
+
+    public long packedCell() {
+        return ((long) latitudeCell << CELL_SHIFT) | (longitudeCell & CELL_MASK);
+    }
+}
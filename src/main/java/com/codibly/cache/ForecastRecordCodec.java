@@ -0,0 +1,53 @@
+package com.codibly.cache;
+
+import com.codibly.dtos.WeatherDTO;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+
+final class ForecastRecordCodec {
+
+    static final int MAGIC = 0x57465354;
+    static final int VERSION = 2;
+
+    private ForecastRecordCodec() {
+    }
+
+    static void writeHeader(DataOutput output, double gridSizeDegrees) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeDouble(gridSizeDegrees);
+    }
+
+    static boolean readHeader(DataInput input, double gridSizeDegrees) throws IOException {
+        return input.readInt() == MAGIC
+                && input.readInt() == VERSION
+                && input.readDouble() == gridSizeDegrees;
+    }
+
+    static void write(DataOutput output, StoredForecast storedForecast) throws IOException {
+        ForecastKey key = storedForecast.key();
+        byte[] payload = WeatherDTOCodec.encode(storedForecast.weatherDTO());
+
+        output.writeInt(key.latitudeCell());
+        output.writeInt(key.longitudeCell());
+        output.writeLong(storedForecast.fetchedAt().toEpochMilli());
+        output.writeShort(payload.length);
+        output.write(payload);
+    }
+
+    static StoredForecast read(DataInput input) throws IOException {
+        int latitudeCell = input.readInt();
+        int longitudeCell = input.readInt();
+        Instant fetchedAt = Instant.ofEpochMilli(input.readLong());
+        byte[] payload = new byte[input.readUnsignedShort()];
+        input.readFully(payload);
+
+        WeatherDTO weatherDTO = WeatherDTOCodec.decode(payload);
+
+        return new StoredForecast(new ForecastKey(latitudeCell, longitudeCell, weatherDTO.getDate()), weatherDTO,
+                fetchedAt);
+    }
+}
@@ -0,0 +1,209 @@
+package com.codibly.cache;
+
+import com.codibly.config.CacheProperties;
+import com.codibly.config.StoreProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Predicate;
+
+@Slf4j
+@Component
+public class ForecastStore {
+
+    private static final String COMPACTION_SUFFIX = ".compacting";
+
+    private final StoreProperties storeProperties;
+    private final CacheProperties cacheProperties;
+    private final BlockingQueue<StoredForecast> pendingWrites;
+    private DataOutputStream appender;
+
+    public ForecastStore(StoreProperties storeProperties, CacheProperties cacheProperties) {
+        this.storeProperties = storeProperties;
+        this.cacheProperties = cacheProperties;
+        this.pendingWrites = new LinkedBlockingQueue<>(storeProperties.getMaxPendingWrites());
+    }
+
+    public boolean isEnabled() {
+        return storeProperties.isEnabled();
+    }
+
+    public synchronized List<StoredForecast> load(Predicate<StoredForecast> isLive) {
+        if (!isEnabled()) {
+            return List.of();
+        }
+
+        List<StoredForecast> liveForecasts = compactLocked(isLive);
+        log.info("Loaded {} forecast days from {}", liveForecasts.size(), storePath());
+
+        return liveForecasts;
+    }
+
+    public void append(StoredForecast storedForecast) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        // written in batches by flush(), so disk I/O stays off the threads that complete upstream fetches
+        if (!pendingWrites.offer(storedForecast)) {
+            log.warn("Dropping forecast day {}: {} writes already pending for {}", storedForecast.key(),
+                    storeProperties.getMaxPendingWrites(), storePath());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${weather.store.flush-interval:PT1S}")
+    public synchronized void flush() {
+        if (isEnabled()) {
+            writePending();
+        }
+    }
+
+    public synchronized void compact(Predicate<StoredForecast> isLive) {
+        if (isEnabled()) {
+            int liveForecasts = compactLocked(isLive).size();
+            log.debug("Compacted {} to {} forecast days", storePath(), liveForecasts);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        flush();
+        closeAppender();
+    }
+
+    private void writePending() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+
+        List<StoredForecast> batch = new ArrayList<>();
+        Map<ForecastKey, StoredForecast> latest = new LinkedHashMap<>();
+        pendingWrites.drainTo(batch);
+        // a day written twice within one batch, e.g. once more under the learned model point, is written once
+        batch.forEach(storedForecast -> latest.put(storedForecast.key(), storedForecast));
+
+        try {
+            if (appender == null) {
+                openAppender();
+            }
+            for (StoredForecast storedForecast : latest.values()) {
+                ForecastRecordCodec.write(appender, storedForecast);
+            }
+            appender.flush();
+        } catch (IOException error) {
+            log.error("Error appending {} forecast days to {}", latest.size(), storePath(), error);
+            closeAppender();
+        }
+    }
+
+    private List<StoredForecast> compactLocked(Predicate<StoredForecast> isLive) {
+        writePending();
+        closeAppender();
+
+        try {
+            List<StoredForecast> liveForecasts = readLatest().values().stream().filter(isLive).toList();
+            rewrite(liveForecasts);
+            openAppender();
+            return liveForecasts;
+        } catch (IOException | RuntimeException error) {
+            log.error("Error compacting forecast store {}", storePath(), error);
+            return List.of();
+        }
+    }
+
+    private Map<ForecastKey, StoredForecast> readLatest() throws IOException {
+        Map<ForecastKey, StoredForecast> latest = new LinkedHashMap<>();
+        Path path = storePath();
+
+        if (!Files.exists(path)) {
+            return latest;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (!ForecastRecordCodec.readHeader(input, cacheProperties.getGridSizeDegrees())) {
+                log.warn("Discarding {}: written by a different format version or grid size", path);
+                return latest;
+            }
+
+            while (true) {
+                StoredForecast storedForecast = ForecastRecordCodec.read(input);
+                latest.put(storedForecast.key(), storedForecast);
+            }
+        } catch (EOFException endOfStore) {
+            // a record cut short by a crash is dropped here and disappears with the rewrite
+            return latest;
+        } catch (RuntimeException corruptRecord) {
+            // nothing after a record that does not decode can be trusted, so it is dropped like a truncated tail
+            log.warn("Discarding the rest of {} after {} forecast days: corrupt record", path, latest.size(),
+                    corruptRecord);
+            return latest;
+        }
+    }
+
+    private void rewrite(Collection<StoredForecast> liveForecasts) throws IOException {
+        Path path = storePath();
+        Path compactedPath = path.resolveSibling(path.getFileName() + COMPACTION_SUFFIX);
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(compactedPath)))) {
+            ForecastRecordCodec.writeHeader(output, cacheProperties.getGridSizeDegrees());
+            for (StoredForecast storedForecast : liveForecasts) {
+                ForecastRecordCodec.write(output, storedForecast);
+            }
+        }
+
+        Files.move(compactedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void openAppender() throws IOException {
+        Path path = storePath();
+
+        if (!Files.exists(path)) {
+            rewrite(List.of());
+        }
+
+        appender = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path, StandardOpenOption.APPEND)));
+    }
+
+    private void closeAppender() {
+        if (appender == null) {
+            return;
+        }
+
+        try {
+            appender.close();
+        } catch (IOException error) {
+            log.warn("Error closing forecast store {}", storePath(), error);
+        } finally {
+            appender = null;
+        }
+    }
+
+    private Path storePath() {
+        return Path.of(storeProperties.getPath());
+    }
+}
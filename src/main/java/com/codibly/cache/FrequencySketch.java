@@ -0,0 +1,64 @@
+package com.codibly.cache;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MIN_WIDTH = 16;
+    private static final int SAMPLE_SIZE_MULTIPLIER = 10;
+    private static final long[] SEEDS = {
+            0x97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L
+    };
+    private static final int MIX_SHIFT = 32;
+
+    private final AtomicIntegerArray counters;
+    private final int widthMask;
+    private final long sampleSize;
+    private final AtomicLong additions = new AtomicLong();
+
+    FrequencySketch(int expectedItems) {
+        int width = Math.max(MIN_WIDTH, Integer.highestOneBit(Math.max(1, expectedItems) - 1) << 1);
+
+        this.counters = new AtomicIntegerArray(width * DEPTH);
+        this.widthMask = width - 1;
+        this.sampleSize = (long) width * SAMPLE_SIZE_MULTIPLIER;
+    }
+
+    void increment(long item) {
+        for (int row = 0; row < DEPTH; row++) {
+            counters.incrementAndGet(indexOf(item, row));
+        }
+
+        if (additions.incrementAndGet() == sampleSize) {
+            age();
+        }
+    }
+
+    int frequency(long item) {
+        int frequency = Integer.MAX_VALUE;
+
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters.get(indexOf(item, row)));
+        }
+
+        return frequency;
+    }
+
+    private void age() {
+        additions.set(0);
+
+        // halving keeps the sketch biased towards recent demand instead of all-time totals
+        for (int index = 0; index < counters.length(); index++) {
+            counters.updateAndGet(index, count -> count >>> 1);
+        }
+    }
+
+    private int indexOf(long item, int row) {
+        long hash = (item + SEEDS[row]) * SEEDS[row];
+        hash ^= hash >>> MIX_SHIFT;
+
+        return row * (widthMask + 1) + ((int) hash & widthMask);
+    }
+}
@@ -0,0 +1,4 @@
+package com.codibly.cache;
+
+public record HotLocation(double latitude, double longitude, int frequency) {
+}
@@ -0,0 +1,250 @@
+package com.codibly.cache;
+
+import com.codibly.dtos.WeatherDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+class OffHeapForecastStorage implements ForecastCacheStorage {
+
+    private static final int EMPTY = -1;
+    private static final int INDEX_SIZE_MULTIPLIER = 2;
+    private static final int MAX_ENTRIES = 1 << 29;
+    private static final long MIX_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int MIX_SHIFT = 32;
+
+    private final int slotBytes;
+    private final ByteBuffer records;
+    private final long[] slotKeys;
+    private final int[] slotLatitudeCells;
+    private final int[] slotLongitudeCells;
+    private final long[] slotDays;
+    private final long[] slotExpiresAt;
+    private final int[] slotLengths;
+    private final boolean[] slotReferenced;
+    private final long[] indexKeys;
+    private final int[] indexSlots;
+    private final int indexMask;
+    private final int[] freeSlots;
+    private final Lock lock = new ReentrantLock();
+    private int freeSlotCount;
+    private int clockHand;
+    private int size;
+    private long evictions;
+
+    OffHeapForecastStorage(int maxEntries, int slotBytes) {
+        if (maxEntries < 1 || maxEntries > MAX_ENTRIES || slotBytes < 1
+                || (long) maxEntries * slotBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap cache must fit in one buffer of at most 2GB, got "
+                    + maxEntries + " slots of " + slotBytes + " bytes");
+        }
+
+        int indexSize = Integer.highestOneBit(maxEntries * INDEX_SIZE_MULTIPLIER - 1) << 1;
+
+        this.slotBytes = slotBytes;
+        this.records = ByteBuffer.allocateDirect(maxEntries * slotBytes);
+        this.slotKeys = new long[maxEntries];
+        this.slotLatitudeCells = new int[maxEntries];
+        this.slotLongitudeCells = new int[maxEntries];
+        this.slotDays = new long[maxEntries];
+        this.slotExpiresAt = new long[maxEntries];
+        this.slotLengths = new int[maxEntries];
+        this.slotReferenced = new boolean[maxEntries];
+        this.indexKeys = new long[indexSize];
+        this.indexSlots = new int[indexSize];
+        this.indexMask = indexSize - 1;
+        this.freeSlots = new int[maxEntries];
+
+        Arrays.fill(slotLengths, EMPTY);
+        Arrays.fill(indexSlots, EMPTY);
+        for (int slot = 0; slot < maxEntries; slot++) {
+            freeSlots[slot] = maxEntries - 1 - slot;
+        }
+        this.freeSlotCount = maxEntries;
+    }
+
+    @Override
+    public CachedForecast get(ForecastKey key, Instant now) {
+        byte[] encoded;
+        long expiresAtMillis;
+
+        lock.lock();
+        try {
+            int position = findPosition(key);
+
+            if (position == EMPTY) {
+                return null;
+            }
+
+            int slot = indexSlots[position];
+
+            if (now.toEpochMilli() >= slotExpiresAt[slot]) {
+                remove(position);
+                return null;
+            }
+
+            slotReferenced[slot] = true;
+            expiresAtMillis = slotExpiresAt[slot];
+            encoded = new byte[slotLengths[slot]];
+            records.get(slot * slotBytes, encoded);
+        } finally {
+            lock.unlock();
+        }
+
+        return new CachedForecast(WeatherDTOCodec.decode(encoded), Instant.ofEpochMilli(expiresAtMillis));
+    }
+
+    @Override
+    public void put(ForecastKey key, WeatherDTO weatherDTO, Instant expiresAt, Instant now) {
+        byte[] encoded = WeatherDTOCodec.encode(weatherDTO);
+
+        if (encoded.length > slotBytes) {
+            log.warn("Forecast record of {} bytes does not fit a {} byte off-heap slot, not caching {}",
+                    encoded.length, slotBytes, key);
+            return;
+        }
+
+        long packedKey = key.packed();
+
+        lock.lock();
+        try {
+            int position = findPosition(key);
+            int slot;
+
+            if (position != EMPTY) {
+                slot = indexSlots[position];
+            } else {
+                slot = allocateSlot(now.toEpochMilli());
+                insert(packedKey, slot);
+                slotKeys[slot] = packedKey;
+                slotLatitudeCells[slot] = key.latitudeCell();
+                slotLongitudeCells[slot] = key.longitudeCell();
+                slotDays[slot] = key.date().toEpochDay();
+                size++;
+            }
+
+            records.put(slot * slotBytes, encoded);
+            slotLengths[slot] = encoded.length;
+            slotExpiresAt[slot] = expiresAt.toEpochMilli();
+            slotReferenced[slot] = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long evictions() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int allocateSlot(long nowMillis) {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+
+        while (true) {
+            int slot = clockHand;
+            clockHand = (clockHand + 1) % slotKeys.length;
+
+            if (slotReferenced[slot] && slotExpiresAt[slot] > nowMillis) {
+                slotReferenced[slot] = false;
+                continue;
+            }
+
+            remove(findSlotPosition(slot));
+            evictions++;
+            return freeSlots[--freeSlotCount];
+        }
+    }
+
+    private int findPosition(ForecastKey key) {
+        long packedKey = key.packed();
+        int position = bucket(packedKey);
+
+        // the packed key drops high bits of very fine grids, so it only narrows the search to candidate slots
+        while (indexSlots[position] != EMPTY) {
+            if (indexKeys[position] == packedKey && holds(indexSlots[position], key)) {
+                return position;
+            }
+            position = (position + 1) & indexMask;
+        }
+
+        return EMPTY;
+    }
+
+    private int findSlotPosition(int slot) {
+        int position = bucket(slotKeys[slot]);
+
+        while (indexSlots[position] != slot) {
+            position = (position + 1) & indexMask;
+        }
+
+        return position;
+    }
+
+    private boolean holds(int slot, ForecastKey key) {
+        return slotLatitudeCells[slot] == key.latitudeCell()
+                && slotLongitudeCells[slot] == key.longitudeCell()
+                && slotDays[slot] == key.date().toEpochDay();
+    }
+
+    private void insert(long packedKey, int slot) {
+        int position = bucket(packedKey);
+
+        while (indexSlots[position] != EMPTY) {
+            position = (position + 1) & indexMask;
+        }
+
+        indexKeys[position] = packedKey;
+        indexSlots[position] = slot;
+    }
+
+    private void remove(int position) {
+        int slot = indexSlots[position];
+        int hole = position;
+        int next = (position + 1) & indexMask;
+
+        // backward-shift deletion keeps linear probe chains intact without tombstones
+        while (indexSlots[next] != EMPTY) {
+            int ideal = bucket(indexKeys[next]);
+
+            if (((next - ideal) & indexMask) >= ((next - hole) & indexMask)) {
+                indexKeys[hole] = indexKeys[next];
+                indexSlots[hole] = indexSlots[next];
+                hole = next;
+            }
+            next = (next + 1) & indexMask;
+        }
+
+        indexSlots[hole] = EMPTY;
+        slotLengths[slot] = EMPTY;
+        slotReferenced[slot] = false;
+        freeSlots[freeSlotCount++] = slot;
+        size--;
+    }
+
+    private int bucket(long packedKey) {
+        long mixed = packedKey * MIX_MULTIPLIER;
+        return (int) (mixed ^ (mixed >>> MIX_SHIFT)) & indexMask;
+    }
+}
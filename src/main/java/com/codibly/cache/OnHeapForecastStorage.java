@@ -0,0 +1,79 @@
+package com.codibly.cache;
+
+import com.codibly.dtos.WeatherDTO;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+class OnHeapForecastStorage implements ForecastCacheStorage {
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<ForecastKey, CachedForecast> entries;
+    private final Lock lock = new ReentrantLock();
+    private final LongAdder evictions = new LongAdder();
+
+    OnHeapForecastStorage(int maxEntries) {
+        this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ForecastKey, CachedForecast> eldest) {
+                boolean overCapacity = size() > maxEntries;
+                if (overCapacity) {
+                    evictions.increment();
+                }
+                return overCapacity;
+            }
+        };
+    }
+
+    @Override
+    public CachedForecast get(ForecastKey key, Instant now) {
+        lock.lock();
+        try {
+            CachedForecast entry = entries.get(key);
+
+            if (entry == null) {
+                return null;
+            }
+
+            if (!now.isBefore(entry.expiresAt())) {
+                entries.remove(key);
+                return null;
+            }
+
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(ForecastKey key, WeatherDTO weatherDTO, Instant expiresAt, Instant now) {
+        lock.lock();
+        try {
+            entries.put(key, new CachedForecast(weatherDTO, expiresAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long evictions() {
+        return evictions.sum();
+    }
+}
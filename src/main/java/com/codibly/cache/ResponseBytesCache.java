@@ -0,0 +1,201 @@
+package com.codibly.cache;
+
+import com.codibly.config.CacheProperties;
+import com.codibly.enums.ResponseType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class ResponseBytesCache {
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final String QUOTE = "\"";
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    private final CacheProperties cacheProperties;
+    private final ForecastCache forecastCache;
+    private final Clock clock;
+    private final Map<ResponseKey, CachedResponse> entries;
+    private final Map<Long, Long> cellGenerations;
+    private final Lock lock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long invalidations;
+    private long forgottenGeneration;
+
+    @Autowired
+    public ResponseBytesCache(CacheProperties cacheProperties, ForecastCache forecastCache) {
+        this(cacheProperties, forecastCache, Clock.systemDefaultZone());
+    }
+
+    ResponseBytesCache(CacheProperties cacheProperties, ForecastCache forecastCache, Clock clock) {
+        int maxEntries = cacheProperties.getResponses().getMaxEntries();
+
+        this.cacheProperties = cacheProperties;
+        this.forecastCache = forecastCache;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ResponseKey, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.cellGenerations = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+
+                // a forgotten cell reports the newest generation forgotten so far, never one read before its change
+                forgottenGeneration = Math.max(forgottenGeneration, eldest.getValue());
+                return true;
+            }
+        };
+        forecastCache.addChangeListener(this::invalidate);
+    }
+
+    public Optional<CachedResponse> get(double latitude, double longitude, ResponseType type) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+
+        Instant now = clock.instant();
+        ResponseKey key = keyFor(latitude, longitude, type);
+        CachedResponse response;
+
+        lock.lock();
+        try {
+            response = entries.get(key);
+
+            if (response != null && (!response.firstDate().equals(LocalDate.now(clock))
+                    || !now.isBefore(response.freshUntil()))) {
+                entries.remove(key);
+                response = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (response == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        // hits skip the forecast cache, but still have to count towards proactive refresh of hot cells
+        forecastCache.recordAccess(latitude, longitude);
+        hits.increment();
+        return Optional.of(response);
+    }
+
+    public long generation(double latitude, double longitude) {
+        long cell = cellOf(latitude, longitude);
+
+        lock.lock();
+        try {
+            return generationOf(cell);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CachedResponse put(double latitude, double longitude, ResponseType type, byte[] body, Duration freshness,
+                              long observedGeneration) {
+        Instant now = clock.instant();
+        boolean cacheable = isEnabled() && freshness.compareTo(Duration.ZERO) > 0;
+        boolean gzip = cacheable && cacheProperties.getResponses().isGzip();
+        String hash = DigestUtils.md5DigestAsHex(body);
+        CachedResponse response = new CachedResponse(LocalDate.now(clock), body, QUOTE + hash + QUOTE,
+                gzip ? gzip(body) : null, gzip ? QUOTE + hash + GZIP_ETAG_SUFFIX + QUOTE : null,
+                cacheable ? now.plus(freshness) : now);
+
+        if (!cacheable) {
+            return response;
+        }
+
+        ResponseKey key = keyFor(latitude, longitude, type);
+
+        lock.lock();
+        try {
+            // a forecast of this cell that changed while the body was being built must not be pinned by an older body
+            if (generationOf(key.cell()) == observedGeneration) {
+                entries.put(key, response);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return response;
+    }
+
+    public ResponseCacheStats stats() {
+        lock.lock();
+        try {
+            return new ResponseCacheStats(hits.sum(), misses.sum(), invalidations, entries.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void invalidate(ForecastKey changedKey) {
+        long cell = changedKey.packedCell();
+
+        lock.lock();
+        try {
+            cellGenerations.put(cell, ++invalidations);
+            for (ResponseType type : ResponseType.values()) {
+                entries.remove(new ResponseKey(cell, type));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isEnabled() {
+        return cacheProperties.isEnabled() && cacheProperties.getResponses().isEnabled();
+    }
+
+    private long generationOf(long cell) {
+        return cellGenerations.getOrDefault(cell, forgottenGeneration);
+    }
+
+    private ResponseKey keyFor(double latitude, double longitude, ResponseType type) {
+        return new ResponseKey(cellOf(latitude, longitude), type);
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return ForecastKey.of(latitude, longitude, LocalDate.EPOCH, cacheProperties.getGridSizeDegrees()).packedCell();
+    }
+
+    private byte[] gzip(byte[] body) {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length);
+
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(gzipped)) {
+            gzipStream.write(body);
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+
+        return gzipped.toByteArray();
+    }
+
+    private record ResponseKey(long cell, ResponseType type) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.codibly.cache;
+
+public record ResponseCacheStats(long hits, long misses, long invalidations, int size) {
+}
@@ -0,0 +1,8 @@
+package com.codibly.cache;
+
+import com.codibly.dtos.WeatherDTO;
+
+import java.time.Instant;
+
+public record StoredForecast(ForecastKey key, WeatherDTO weatherDTO, Instant fetchedAt) {
+}
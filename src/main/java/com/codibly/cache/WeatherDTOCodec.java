@@ -0,0 +1,179 @@
+package com.codibly.cache;
+
+import com.codibly.dtos.WeatherDTO;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+public final class WeatherDTOCodec {
+
+    static final byte FORMAT_VERSION = 1;
+
+    private static final byte NO_PRESSURE = 0;
+    private static final byte PRESSURE_TENTHS_DELTA = 1;
+    private static final byte PRESSURE_RAW = 2;
+    private static final double TENTHS = 10.0;
+    private static final int DOUBLE_FIELDS = 5;
+    private static final int VARINT_LENGTH_FIELDS = 3;
+    private static final int FIXED_WIDTH_BYTES = 2 * Byte.BYTES + DOUBLE_FIELDS * Double.BYTES;
+    private static final int MAX_VARINT_BYTES = 10;
+    private static final int VARINT_PAYLOAD_BITS = 7;
+    private static final int VARINT_PAYLOAD_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION = 0x80;
+
+    private WeatherDTOCodec() {
+    }
+
+    public static byte[] encode(WeatherDTO weatherDTO) {
+        int[] weatherCodes = weatherDTO.getWeatherCodes();
+        double[] dailyPressure = weatherDTO.getDailyPressure();
+        int maxSize = FIXED_WIDTH_BYTES + MAX_VARINT_BYTES * (VARINT_LENGTH_FIELDS + weatherCodes.length)
+                + Math.max(MAX_VARINT_BYTES, Double.BYTES) * dailyPressure.length;
+        ByteBuffer buffer = ByteBuffer.allocate(maxSize);
+
+        buffer.put(FORMAT_VERSION);
+        buffer.putDouble(weatherDTO.getLatitude());
+        buffer.putDouble(weatherDTO.getLongitude());
+        writeVarLong(buffer, weatherDTO.getDate().toEpochDay());
+        buffer.putDouble(weatherDTO.getMaxTemp());
+        buffer.putDouble(weatherDTO.getMinTemp());
+        buffer.putDouble(weatherDTO.getSunshineDuration());
+
+        writeVarLong(buffer, weatherCodes.length);
+        for (int weatherCode : weatherCodes) {
+            writeVarLong(buffer, weatherCode);
+        }
+
+        writePressure(buffer, dailyPressure);
+
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    public static WeatherDTO decode(byte[] encoded) {
+        return decode(ByteBuffer.wrap(encoded));
+    }
+
+    public static WeatherDTO decode(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported weather record format version " + version);
+        }
+
+        WeatherDTO.WeatherDTOBuilder weatherDTO = WeatherDTO.builder()
+                .latitude(buffer.getDouble())
+                .longitude(buffer.getDouble());
+
+        weatherDTO.date(LocalDate.ofEpochDay(readVarLong(buffer)))
+                .maxTemp(buffer.getDouble())
+                .minTemp(buffer.getDouble())
+                .sunshineDuration(buffer.getDouble());
+
+        int[] weatherCodes = new int[readCount(buffer, Byte.BYTES)];
+        for (int index = 0; index < weatherCodes.length; index++) {
+            weatherCodes[index] = (int) readVarLong(buffer);
+        }
+
+        return weatherDTO.weatherCodes(weatherCodes)
+                .dailyPressure(readPressure(buffer))
+                .build();
+    }
+
+    private static void writePressure(ByteBuffer buffer, double[] dailyPressure) {
+        if (dailyPressure.length == 0) {
+            buffer.put(NO_PRESSURE);
+            return;
+        }
+
+        if (!fitsInTenths(dailyPressure)) {
+            buffer.put(PRESSURE_RAW);
+            writeVarLong(buffer, dailyPressure.length);
+            for (double pressure : dailyPressure) {
+                buffer.putDouble(pressure);
+            }
+            return;
+        }
+
+        buffer.put(PRESSURE_TENTHS_DELTA);
+        writeVarLong(buffer, dailyPressure.length);
+
+        long previousTenths = 0;
+        for (double pressure : dailyPressure) {
+            long tenths = Math.round(pressure * TENTHS);
+            writeVarLong(buffer, tenths - previousTenths);
+            previousTenths = tenths;
+        }
+    }
+
+    private static double[] readPressure(ByteBuffer buffer) {
+        byte pressureEncoding = buffer.get();
+
+        if (pressureEncoding == NO_PRESSURE) {
+            return new double[0];
+        }
+
+        double[] dailyPressure = new double[readCount(buffer,
+                pressureEncoding == PRESSURE_RAW ? Double.BYTES : Byte.BYTES)];
+
+        if (pressureEncoding == PRESSURE_RAW) {
+            for (int hour = 0; hour < dailyPressure.length; hour++) {
+                dailyPressure[hour] = buffer.getDouble();
+            }
+            return dailyPressure;
+        }
+
+        long tenths = 0;
+        for (int hour = 0; hour < dailyPressure.length; hour++) {
+            tenths += readVarLong(buffer);
+            dailyPressure[hour] = tenths / TENTHS;
+        }
+
+        return dailyPressure;
+    }
+
+    private static int readCount(ByteBuffer buffer, int minElementBytes) {
+        long count = readVarLong(buffer);
+
+        // checked before allocating, so a flipped byte cannot ask for an array far larger than the record itself
+        if (count < 0 || count > buffer.remaining() / minElementBytes) {
+            throw new IllegalArgumentException("Weather record declares " + count + " elements, but only "
+                    + buffer.remaining() + " bytes remain");
+        }
+
+        return (int) count;
+    }
+
+    private static boolean fitsInTenths(double[] values) {
+        for (double value : values) {
+            if (Double.isNaN(value) || Double.isInfinite(value) || Math.round(value * TENTHS) / TENTHS != value) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void writeVarLong(ByteBuffer buffer, long value) {
+        long zigZag = (value << 1) ^ (value >> (Long.SIZE - 1));
+
+        while ((zigZag & ~VARINT_PAYLOAD_MASK) != 0) {
+            buffer.put((byte) ((zigZag & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION));
+            zigZag >>>= VARINT_PAYLOAD_BITS;
+        }
+        buffer.put((byte) zigZag);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long zigZag = 0;
+        int shift = 0;
+        byte current;
+
+        do {
+            current = buffer.get();
+            zigZag |= (long) (current & VARINT_PAYLOAD_MASK) << shift;
+            shift += VARINT_PAYLOAD_BITS;
+        } while ((current & VARINT_CONTINUATION) != 0);
+
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.codibly.config;
+
+import com.codibly.connectivity.AsyncSemaphore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    public static final String UPSTREAM_EXECUTOR = "upstreamExecutor";
+
+    @Bean(name = UPSTREAM_EXECUTOR)
+    public TaskExecutor upstreamExecutor(UpstreamProperties upstreamProperties) {
+        UpstreamProperties.Executor executorProperties = upstreamProperties.getExecutor();
+
+        // tasks carry the submitting thread's observation, so spans and log correlation survive the hop
+        if (executorProperties.isVirtualThreads()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(executorProperties.getThreadNamePrefix());
+            executor.setVirtualThreads(true);
+            executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(executorProperties.getCorePoolSize());
+        executor.setMaxPoolSize(executorProperties.getMaxPoolSize());
+        executor.setQueueCapacity(executorProperties.getQueueCapacity());
+        executor.setThreadNamePrefix(executorProperties.getThreadNamePrefix());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+
+        return executor;
+    }
+
+    @Bean
+    public AsyncSemaphore upstreamConcurrencyLimiter(UpstreamProperties upstreamProperties) {
+        return new AsyncSemaphore(upstreamProperties.getFanOut().getGlobalConcurrency(),
+                upstreamProperties.getResilience().getMaxWaitingCalls());
+    }
+}
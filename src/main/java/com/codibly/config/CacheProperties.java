@@ -0,0 +1,51 @@
+package com.codibly.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "weather.cache")
+public class CacheProperties {
+
+    private boolean enabled = true;
+    private double gridSizeDegrees = 0.01;
+    private Duration ttl = Duration.ofHours(1);
+    private Duration todayTtl = Duration.ofMinutes(15);
+    private int maxEntries = 10_000;
+    private Duration staleWhileRevalidate = Duration.ofMinutes(30);
+    private OffHeap offHeap = new OffHeap();
+    private Refresh refresh = new Refresh();
+    private Responses responses = new Responses();
+
+    @Getter
+    @Setter
+    public static class OffHeap {
+
+        private boolean enabled = false;
+        private int slotBytes = 256;
+    }
+
+    @Getter
+    @Setter
+    public static class Refresh {
+
+        private boolean enabled = true;
+        private int topLocations = 100;
+        private int trackedLocations = 10_000;
+        private Duration interval = Duration.ofMinutes(1);
+        private Duration aheadOfExpiry = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Responses {
+
+        private boolean enabled = true;
+        private int maxEntries = 1_000;
+        private boolean gzip = true;
+    }
+}
@@ -0,0 +1,15 @@
+package com.codibly.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "weather.grid")
+public class GridProperties {
+
+    private boolean enabled = true;
+    private boolean useModelCoordinates = true;
+    private int maxLearnedCells = 100_000;
+}
@@ -0,0 +1,43 @@
+package com.codibly.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.Executor;
+
+@Configuration
+public class HttpClientConfig {
+
+    public static final String HTTP_CLIENT_EXECUTOR = "upstreamHttpClientExecutor";
+
+    @Bean(name = HTTP_CLIENT_EXECUTOR)
+    public ThreadPoolTaskExecutor upstreamHttpClientExecutor(UpstreamProperties upstreamProperties) {
+        UpstreamProperties.Http httpProperties = upstreamProperties.getHttp();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        // the queue stays unbounded: a bounded pool that rejects tasks shuts down the client's selector manager
+        executor.setCorePoolSize(httpProperties.getExecutorThreads());
+        executor.setMaxPoolSize(httpProperties.getExecutorThreads());
+        executor.setThreadNamePrefix(httpProperties.getThreadNamePrefix());
+        executor.setDaemon(true);
+
+        return executor;
+    }
+
+    @Bean
+    public HttpClient weatherHttpClient(UpstreamProperties upstreamProperties,
+                                        @Qualifier(AsyncConfig.UPSTREAM_EXECUTOR) Executor upstreamExecutor,
+                                        @Qualifier(HTTP_CLIENT_EXECUTOR) Executor httpClientExecutor) {
+        UpstreamProperties.Http httpProperties = upstreamProperties.getHttp();
+
+        // a client built with HTTP/2 still falls back to HTTP/1.1 when the server does not negotiate it
+        return HttpClient.newBuilder()
+                .version(httpProperties.getVersion())
+                .connectTimeout(upstreamProperties.getResilience().getConnectTimeout())
+                .executor(upstreamProperties.getExecutor().isVirtualThreads() ? upstreamExecutor : httpClientExecutor)
+                .build();
+    }
+}
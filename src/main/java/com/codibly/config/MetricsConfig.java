@@ -0,0 +1,124 @@
+package com.codibly.config;
+
+import com.codibly.cache.ForecastCache;
+import com.codibly.cache.ForecastCacheStats;
+import com.codibly.cache.ResponseBytesCache;
+import com.codibly.cache.ResponseCacheStats;
+import com.codibly.connectivity.LastKnownGoodStore;
+import com.codibly.connectivity.SingleFlightStats;
+import com.codibly.connectivity.UpstreamClientStats;
+import com.codibly.connectivity.WeatherAPIHandler;
+import com.codibly.enums.CircuitState;
+import com.codibly.services.CoordinateResolver;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+@Configuration
+public class MetricsConfig {
+
+    private static final String CACHE_PREFIX = "weather.cache.";
+    private static final String RESPONSE_CACHE_PREFIX = CACHE_PREFIX + "responses.";
+    private static final String UPSTREAM_PREFIX = "weather.upstream.";
+    private static final String STATE_TAG = "state";
+
+    @Bean
+    public MeterBinder forecastCacheMetrics(ForecastCache forecastCache) {
+        return registry -> {
+            cacheCounter(registry, forecastCache, "hits", ForecastCacheStats::hits);
+            cacheCounter(registry, forecastCache, "misses", ForecastCacheStats::misses);
+            cacheCounter(registry, forecastCache, "stale.hits", ForecastCacheStats::staleHits);
+            cacheCounter(registry, forecastCache, "revalidations", ForecastCacheStats::revalidations);
+            cacheCounter(registry, forecastCache, "evictions", ForecastCacheStats::evictions);
+            Gauge.builder(CACHE_PREFIX + "size", forecastCache, cache -> cache.stats().size())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder responseCacheMetrics(ResponseBytesCache responseBytesCache) {
+        return registry -> {
+            responseCacheCounter(registry, responseBytesCache, "hits", ResponseCacheStats::hits);
+            responseCacheCounter(registry, responseBytesCache, "misses", ResponseCacheStats::misses);
+            responseCacheCounter(registry, responseBytesCache, "invalidations", ResponseCacheStats::invalidations);
+            Gauge.builder(RESPONSE_CACHE_PREFIX + "size", responseBytesCache, cache -> cache.stats().size())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder upstreamMetrics(WeatherAPIHandler weatherAPIHandler, LastKnownGoodStore lastKnownGoodStore) {
+        return registry -> {
+            coalescingCounter(registry, weatherAPIHandler, "executions", SingleFlightStats::executions);
+            coalescingCounter(registry, weatherAPIHandler, "coalesced", SingleFlightStats::coalescedCalls);
+            Gauge.builder(UPSTREAM_PREFIX + "singleflight.in.flight", weatherAPIHandler,
+                    handler -> handler.coalescingStats().inFlightCalls()).register(registry);
+
+            for (CircuitState state : CircuitState.values()) {
+                Gauge.builder(UPSTREAM_PREFIX + "circuit.state", weatherAPIHandler,
+                                handler -> handler.resilienceStats().circuitBreaker().state() == state ? 1 : 0)
+                        .tag(STATE_TAG, state.name())
+                        .register(registry);
+            }
+            resilienceCounter(registry, weatherAPIHandler, "circuit.not.permitted",
+                    stats -> stats.circuitBreaker().notPermittedCalls());
+            resilienceCounter(registry, weatherAPIHandler, "retries", UpstreamClientStats::retries);
+            resilienceCounter(registry, weatherAPIHandler, "bulkhead.rejected", UpstreamClientStats::rejectedCalls);
+            resilienceGauge(registry, weatherAPIHandler, "bulkhead.active", UpstreamClientStats::activeCalls);
+            resilienceGauge(registry, weatherAPIHandler, "bulkhead.waiting", UpstreamClientStats::waitingCalls);
+            resilienceGauge(registry, weatherAPIHandler, "budget.remaining.minute",
+                    stats -> stats.rateLimiter().remainingPerMinute());
+            resilienceGauge(registry, weatherAPIHandler, "budget.remaining.day",
+                    stats -> stats.rateLimiter().remainingPerDay());
+            resilienceGauge(registry, weatherAPIHandler, "budget.queued", stats -> stats.rateLimiter().queuedCalls());
+            resilienceCounter(registry, weatherAPIHandler, "budget.rejected",
+                    stats -> stats.rateLimiter().rejectedCalls());
+
+            FunctionCounter.builder(UPSTREAM_PREFIX + "last.known.good.fallbacks", lastKnownGoodStore,
+                    LastKnownGoodStore::fallbacks).register(registry);
+            Gauge.builder(UPSTREAM_PREFIX + "last.known.good.size", lastKnownGoodStore, LastKnownGoodStore::size)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder gridMetrics(CoordinateResolver coordinateResolver) {
+        return registry -> Gauge.builder("weather.grid.learned.cells", coordinateResolver,
+                CoordinateResolver::learnedCells).register(registry);
+    }
+
+    private void cacheCounter(MeterRegistry registry, ForecastCache forecastCache, String name,
+                              ToDoubleFunction<ForecastCacheStats> value) {
+        FunctionCounter.builder(CACHE_PREFIX + name, forecastCache, cache -> value.applyAsDouble(cache.stats()))
+                .register(registry);
+    }
+
+    private void responseCacheCounter(MeterRegistry registry, ResponseBytesCache responseBytesCache, String name,
+                                      ToDoubleFunction<ResponseCacheStats> value) {
+        FunctionCounter.builder(RESPONSE_CACHE_PREFIX + name, responseBytesCache,
+                cache -> value.applyAsDouble(cache.stats())).register(registry);
+    }
+
+    private void coalescingCounter(MeterRegistry registry, WeatherAPIHandler weatherAPIHandler, String name,
+                                   ToDoubleFunction<SingleFlightStats> value) {
+        FunctionCounter.builder(UPSTREAM_PREFIX + "singleflight." + name, weatherAPIHandler,
+                handler -> value.applyAsDouble(handler.coalescingStats())).register(registry);
+    }
+
+    private void resilienceCounter(MeterRegistry registry, WeatherAPIHandler weatherAPIHandler, String name,
+                                   ToDoubleFunction<UpstreamClientStats> value) {
+        FunctionCounter.builder(UPSTREAM_PREFIX + name, weatherAPIHandler,
+                handler -> value.applyAsDouble(handler.resilienceStats())).register(registry);
+    }
+
+    private void resilienceGauge(MeterRegistry registry, WeatherAPIHandler weatherAPIHandler, String name,
+                                 ToDoubleFunction<UpstreamClientStats> value) {
+        Gauge.builder(UPSTREAM_PREFIX + name, weatherAPIHandler,
+                handler -> value.applyAsDouble(handler.resilienceStats())).register(registry);
+    }
+}
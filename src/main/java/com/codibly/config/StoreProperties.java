@@ -0,0 +1,19 @@
+package com.codibly.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "weather.store")
+public class StoreProperties {
+
+    private boolean enabled = false;
+    private String path = "data/forecast-store.bin";
+    private Duration compactionInterval = Duration.ofHours(1);
+    private Duration flushInterval = Duration.ofSeconds(1);
+    private int maxPendingWrites = 10_000;
+}
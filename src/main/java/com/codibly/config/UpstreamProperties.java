@@ -0,0 +1,88 @@
+package com.codibly.config;
+
+import com.codibly.enums.FetchMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "weather.upstream")
+public class UpstreamProperties {
+
+    private String baseUrl = "https://api.open-meteo.com/v1/forecast";
+    private FetchMode fetchMode = FetchMode.RANGE;
+    private Executor executor = new Executor();
+    private Http http = new Http();
+    private FanOut fanOut = new FanOut();
+    private Batch batch = new Batch();
+    private Resilience resilience = new Resilience();
+    private RateLimit rateLimit = new RateLimit();
+
+    @Getter
+    @Setter
+    public static class Executor {
+
+        private int corePoolSize = 8;
+        private int maxPoolSize = 32;
+        private int queueCapacity = 500;
+        private String threadNamePrefix = "upstream-";
+        private boolean virtualThreads = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Http {
+
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+        private int executorThreads = 4;
+        private String threadNamePrefix = "upstream-http-";
+    }
+
+    @Getter
+    @Setter
+    public static class FanOut {
+
+        private int perRequestConcurrency = 4;
+        private int globalConcurrency = 64;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+
+        private int locationsPerCall = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class Resilience {
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration requestTimeout = Duration.ofSeconds(10);
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(200);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        private int maxWaitingCalls = 1_000;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private int failureRateThreshold = 50;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+        private int lastKnownGoodLocations = 1_000;
+    }
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+
+        private boolean enabled = true;
+        private int requestsPerMinute = 600;
+        private int requestsPerDay = 10_000;
+        private int maxQueuedCalls = 1_000;
+        private Duration maxWait = Duration.ofSeconds(5);
+    }
+}
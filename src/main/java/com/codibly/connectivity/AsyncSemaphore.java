@@ -0,0 +1,116 @@
+package com.codibly.connectivity;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+public class AsyncSemaphore {
+
+    private final int maxConcurrency;
+    private final int maxWaitingCalls;
+    private final Queue<Runnable> waitingCalls = new ArrayDeque<>();
+    private int runningCalls;
+    private long rejectedCalls;
+    private boolean draining;
+
+    public AsyncSemaphore(int maxConcurrency) {
+        this(maxConcurrency, Integer.MAX_VALUE);
+    }
+
+    public AsyncSemaphore(int maxConcurrency, int maxWaitingCalls) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be >= 1");
+        }
+        if (maxWaitingCalls < 0) {
+            throw new IllegalArgumentException("Max waiting calls must be >= 0");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.maxWaitingCalls = maxWaitingCalls;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> startCall(call, result);
+        boolean startNow;
+
+        synchronized (this) {
+            startNow = runningCalls < maxConcurrency && waitingCalls.isEmpty();
+            if (startNow) {
+                runningCalls++;
+            } else if (waitingCalls.size() < maxWaitingCalls) {
+                waitingCalls.add(start);
+            } else {
+                rejectedCalls++;
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "Too many waiting calls: " + maxWaitingCalls));
+            }
+        }
+
+        if (startNow) {
+            start.run();
+        }
+
+        return result;
+    }
+
+    public synchronized int waitingCalls() {
+        return waitingCalls.size();
+    }
+
+    public synchronized int runningCalls() {
+        return runningCalls;
+    }
+
+    public synchronized long rejectedCalls() {
+        return rejectedCalls;
+    }
+
+    private <T> void startCall(Supplier<CompletableFuture<T>> call, CompletableFuture<T> result) {
+        CompletableFuture<T> callFuture;
+
+        try {
+            callFuture = call.get();
+        } catch (RuntimeException error) {
+            callFuture = CompletableFuture.failedFuture(error);
+        }
+
+        callFuture.whenComplete((value, error) -> {
+            release();
+
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    private void release() {
+        synchronized (this) {
+            runningCalls--;
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+
+        // a loop rather than a chain of callbacks: calls that complete synchronously would otherwise recurse
+        // once per waiting call, on whichever thread finished the previous one
+        while (true) {
+            Runnable next;
+
+            synchronized (this) {
+                if (runningCalls >= maxConcurrency || waitingCalls.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                next = waitingCalls.poll();
+                runningCalls++;
+            }
+
+            next.run();
+        }
+    }
+}
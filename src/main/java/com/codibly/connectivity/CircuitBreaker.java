@@ -0,0 +1,150 @@
+package com.codibly.connectivity;
+
+import com.codibly.enums.CircuitState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+@Slf4j
+public class CircuitBreaker {
+
+    private static final int PERCENT = 100;
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final Clock clock;
+    private CircuitState state = CircuitState.CLOSED;
+    private int nextOutcome;
+    private int bufferedCalls;
+    private int failedCalls;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private Instant openedAt = Instant.MIN;
+    private long notPermittedCalls;
+
+    public CircuitBreaker(int slidingWindowSize, int minimumCalls, int failureRateThreshold, Duration openDuration,
+                          int halfOpenCalls, Clock clock) {
+        if (slidingWindowSize < 1 || minimumCalls < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Circuit breaker window, minimum and half-open calls must be >= 1");
+        }
+        this.outcomes = new boolean[slidingWindowSize];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        if (state == CircuitState.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            transitionTo(CircuitState.HALF_OPEN);
+        }
+
+        boolean permitted = switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> acquireHalfOpenPermit();
+        };
+
+        if (!permitted) {
+            notPermittedCalls++;
+        }
+
+        return permitted;
+    }
+
+    public synchronized boolean permitsCalls() {
+        // only a look ahead, the trial permit is taken right before the send, but once every trial permit is out
+        // later callers are turned away before they spend rate budget or a bulkhead slot
+        boolean permitted = switch (state) {
+            case CLOSED -> true;
+            case OPEN -> !clock.instant().isBefore(openedAt.plus(openDuration));
+            case HALF_OPEN -> halfOpenPermits < halfOpenCalls;
+        };
+
+        if (!permitted) {
+            notPermittedCalls++;
+        }
+
+        return permitted;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == CircuitState.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(CircuitState.CLOSED);
+            }
+            return;
+        }
+
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == CircuitState.HALF_OPEN) {
+            transitionTo(CircuitState.OPEN);
+            return;
+        }
+
+        record(true);
+
+        if (state == CircuitState.CLOSED && bufferedCalls >= minimumCalls
+                && failedCalls * PERCENT >= failureRateThreshold * bufferedCalls) {
+            transitionTo(CircuitState.OPEN);
+        }
+    }
+
+    public synchronized CircuitState state() {
+        return state;
+    }
+
+    public synchronized CircuitBreakerStats stats() {
+        return new CircuitBreakerStats(state, bufferedCalls, failedCalls, notPermittedCalls);
+    }
+
+    private boolean acquireHalfOpenPermit() {
+        if (halfOpenPermits >= halfOpenCalls) {
+            return false;
+        }
+
+        halfOpenPermits++;
+        return true;
+    }
+
+    private void record(boolean failed) {
+        if (bufferedCalls == outcomes.length) {
+            failedCalls -= outcomes[nextOutcome] ? 1 : 0;
+        } else {
+            bufferedCalls++;
+        }
+
+        outcomes[nextOutcome] = failed;
+        failedCalls += failed ? 1 : 0;
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+    }
+
+    private void transitionTo(CircuitState newState) {
+        if (newState == CircuitState.OPEN) {
+            log.warn("Upstream circuit breaker {} -> {}", state, newState);
+        } else {
+            log.info("Upstream circuit breaker {} -> {}", state, newState);
+        }
+
+        state = newState;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+
+        if (newState == CircuitState.OPEN) {
+            openedAt = clock.instant();
+        } else if (newState == CircuitState.CLOSED) {
+            nextOutcome = 0;
+            bufferedCalls = 0;
+            failedCalls = 0;
+        }
+    }
+}
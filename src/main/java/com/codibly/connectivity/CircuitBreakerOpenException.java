@@ -0,0 +1,8 @@
+package com.codibly.connectivity;
+
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException() {
+        super("Circuit breaker is open, upstream call not permitted");
+    }
+}
@@ -0,0 +1,6 @@
+package com.codibly.connectivity;
+
+import com.codibly.enums.CircuitState;
+
+public record CircuitBreakerStats(CircuitState state, int bufferedCalls, int failedCalls, long notPermittedCalls) {
+}
@@ -0,0 +1,13 @@
+package com.codibly.connectivity;
+
+import com.codibly.dtos.WeatherDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record DateRangeFetchResult(List<WeatherDTO> weatherData, List<LocalDate> failedDates) {
+
+    public boolean isComplete() {
+        return failedDates.isEmpty();
+    }
+}
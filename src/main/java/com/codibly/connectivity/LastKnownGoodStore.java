@@ -0,0 +1,78 @@
+package com.codibly.connectivity;
+
+import com.codibly.config.UpstreamProperties;
+import com.codibly.dtos.LocationDTO;
+import com.codibly.dtos.WeatherDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class LastKnownGoodStore {
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<LocationDTO, NavigableMap<LocalDate, WeatherDTO>> forecastsByLocation;
+    private final LongAdder fallbacks = new LongAdder();
+
+    public LastKnownGoodStore(UpstreamProperties upstreamProperties) {
+        int maxLocations = upstreamProperties.getResilience().getLastKnownGoodLocations();
+
+        this.forecastsByLocation = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocationDTO, NavigableMap<LocalDate, WeatherDTO>> eldest) {
+                return size() > maxLocations;
+            }
+        };
+    }
+
+    public synchronized void remember(double latitude, double longitude, List<WeatherDTO> weatherDataList) {
+        if (weatherDataList.isEmpty()) {
+            return;
+        }
+
+        NavigableMap<LocalDate, WeatherDTO> forecastDays = forecastsByLocation.computeIfAbsent(
+                new LocationDTO(latitude, longitude), location -> new TreeMap<>());
+
+        for (WeatherDTO weatherDTO : weatherDataList) {
+            if (weatherDTO.getDate() != null) {
+                forecastDays.put(weatherDTO.getDate(), weatherDTO);
+            }
+        }
+        forecastDays.headMap(LocalDate.now()).clear();
+    }
+
+    public synchronized List<WeatherDTO> find(double latitude, double longitude, LocalDate startDate,
+                                              LocalDate endDate) {
+        NavigableMap<LocalDate, WeatherDTO> forecastDays = forecastsByLocation.get(
+                new LocationDTO(latitude, longitude));
+
+        if (forecastDays == null) {
+            return Collections.emptyList();
+        }
+
+        List<WeatherDTO> weatherDataList = List.copyOf(forecastDays.subMap(startDate, true, endDate, true).values());
+
+        if (!weatherDataList.isEmpty()) {
+            fallbacks.increment();
+        }
+
+        return weatherDataList;
+    }
+
+    public synchronized int size() {
+        return forecastsByLocation.size();
+    }
+
+    public long fallbacks() {
+        return fallbacks.sum();
+    }
+}
@@ -0,0 +1,9 @@
+package com.codibly.connectivity;
+
+import com.codibly.dtos.LocationDTO;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public record LocationChunk<T>(List<LocationDTO> locations, CompletableFuture<List<T>> result) {
+}
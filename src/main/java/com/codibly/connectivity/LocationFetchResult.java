@@ -0,0 +1,9 @@
+package com.codibly.connectivity;
+
+import com.codibly.dtos.LocationDTO;
+import com.codibly.dtos.WeatherDTO;
+
+import java.util.List;
+
+public record LocationFetchResult(LocationDTO location, List<WeatherDTO> weatherData) {
+}
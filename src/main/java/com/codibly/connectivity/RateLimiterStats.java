@@ -0,0 +1,5 @@
+package com.codibly.connectivity;
+
+public record RateLimiterStats(long remainingPerMinute, long remainingPerDay, int queuedCalls, long delayedCalls,
+                               long rejectedCalls) {
+}
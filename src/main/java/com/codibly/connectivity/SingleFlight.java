@@ -0,0 +1,47 @@
+package com.codibly.connectivity;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlightCalls = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> inFlightCall = inFlightCalls.putIfAbsent(key, promise);
+
+        if (inFlightCall != null) {
+            coalescedCalls.increment();
+            return inFlightCall.copy();
+        }
+
+        executions.increment();
+
+        try {
+            call.get().whenComplete((value, error) -> {
+                inFlightCalls.remove(key, promise);
+
+                if (error != null) {
+                    promise.completeExceptionally(error);
+                } else {
+                    promise.complete(value);
+                }
+            });
+        } catch (RuntimeException error) {
+            inFlightCalls.remove(key, promise);
+            promise.completeExceptionally(error);
+        }
+
+        return promise.copy();
+    }
+
+    public SingleFlightStats stats() {
+        return new SingleFlightStats(executions.sum(), coalescedCalls.sum(), inFlightCalls.size());
+    }
+}
@@ -0,0 +1,12 @@
+package com.codibly.connectivity;
+
+public record SingleFlightStats(long executions, long coalescedCalls, int inFlightCalls) {
+
+    public SingleFlightStats plus(SingleFlightStats other) {
+        return new SingleFlightStats(
+                executions + other.executions,
+                coalescedCalls + other.coalescedCalls,
+                inFlightCalls + other.inFlightCalls
+        );
+    }
+}
@@ -0,0 +1,56 @@
+package com.codibly.connectivity;
+
+import java.time.Duration;
+
+class TokenBucket {
+
+    private final long capacity;
+    private final double tokensPerMilli;
+    private double tokens;
+    private long lastRefillMillis;
+
+    TokenBucket(long capacity, Duration refillPeriod, long nowMillis) {
+        if (capacity < 1 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Token bucket needs a positive capacity and refill period");
+        }
+        this.capacity = capacity;
+        this.tokensPerMilli = (double) capacity / refillPeriod.toMillis();
+        this.tokens = capacity;
+        this.lastRefillMillis = nowMillis;
+    }
+
+    boolean tryConsume(long permits, long nowMillis) {
+        refill(nowMillis);
+
+        if (tokens < clamp(permits)) {
+            return false;
+        }
+
+        tokens -= clamp(permits);
+        return true;
+    }
+
+    long millisUntilAvailable(long permits, long nowMillis) {
+        refill(nowMillis);
+
+        double missingTokens = clamp(permits) - tokens;
+        return missingTokens <= 0 ? 0 : (long) Math.ceil(missingTokens / tokensPerMilli);
+    }
+
+    long available(long nowMillis) {
+        refill(nowMillis);
+        return (long) tokens;
+    }
+
+    private long clamp(long permits) {
+        // a call heavier than the whole bucket would otherwise never be admitted
+        return Math.min(permits, capacity);
+    }
+
+    private void refill(long nowMillis) {
+        if (nowMillis > lastRefillMillis) {
+            tokens = Math.min(capacity, tokens + (nowMillis - lastRefillMillis) * tokensPerMilli);
+            lastRefillMillis = nowMillis;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.codibly.connectivity;
+
+import com.codibly.config.AsyncConfig;
+import com.codibly.config.UpstreamProperties;
+import com.codibly.enums.RequestPriority;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class UpstreamClient {
+
+    private static final int SUCCESS_STATUS_FROM = 200;
+    private static final int SUCCESS_STATUS_TO = 299;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVER_ERROR_FROM = 500;
+    private static final int CLIENT_ERROR_FROM = 400;
+    private static final int MAX_BACKOFF_SHIFT = 30;
+    private static final String CALLS_METRIC = "weather.upstream.calls";
+    private static final String PRIORITY_TAG = "priority";
+    private static final String STATUS_TAG = "status";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final String ATTEMPT_TAG = "attempt";
+    private static final String VERSION_TAG = "version";
+    private static final String NO_STATUS = "NONE";
+    private static final String NO_VERSION = "NONE";
+    private static final String QUERY_SEPARATOR = "&";
+    private static final String PARAMETER_SEPARATOR = "=";
+    private static final Map<String, String> TRACED_PARAMETERS = Map.of(
+            "latitude", "weather.latitude",
+            "longitude", "weather.longitude",
+            "start_date", "weather.start_date",
+            "end_date", "weather.end_date");
+
+    private final HttpClient weatherHttpClient;
+    private final UpstreamProperties.Resilience resilience;
+    private final AsyncSemaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final UpstreamRateLimiter rateLimiter;
+    private final Executor upstreamExecutor;
+    private final ObservationRegistry observationRegistry;
+    private final LongAdder retries = new LongAdder();
+
+    @Autowired
+    public UpstreamClient(HttpClient weatherHttpClient, UpstreamProperties upstreamProperties,
+                          AsyncSemaphore upstreamConcurrencyLimiter,
+                          @Qualifier(AsyncConfig.UPSTREAM_EXECUTOR) Executor upstreamExecutor,
+                          ObservationRegistry observationRegistry) {
+        this(weatherHttpClient, upstreamProperties, upstreamConcurrencyLimiter, upstreamExecutor, observationRegistry,
+                Clock.systemUTC());
+    }
+
+    UpstreamClient(HttpClient weatherHttpClient, UpstreamProperties upstreamProperties, AsyncSemaphore bulkhead,
+                   Executor upstreamExecutor, ObservationRegistry observationRegistry, Clock clock) {
+        UpstreamProperties.Resilience resilience = upstreamProperties.getResilience();
+
+        this.weatherHttpClient = weatherHttpClient;
+        this.resilience = resilience;
+        this.bulkhead = bulkhead;
+        this.upstreamExecutor = upstreamExecutor;
+        this.observationRegistry = observationRegistry;
+        this.circuitBreaker = new CircuitBreaker(resilience.getSlidingWindowSize(), resilience.getMinimumCalls(),
+                resilience.getFailureRateThreshold(), resilience.getOpenDuration(), resilience.getHalfOpenCalls(),
+                clock);
+        this.rateLimiter = new UpstreamRateLimiter(upstreamProperties.getRateLimit(), clock);
+    }
+
+    public CompletableFuture<byte[]> get(HttpRequest request) {
+        return get(request, RequestPriority.INTERACTIVE, 1);
+    }
+
+    public CompletableFuture<byte[]> get(HttpRequest request, RequestPriority priority, int locations) {
+        // captured here, the later stages run on whichever thread completed the previous one
+        Observation parentObservation = observationRegistry.getCurrentObservation();
+
+        return attempt(new UpstreamCall(request, priority, locations, parentObservation), 1);
+    }
+
+    public UpstreamClientStats stats() {
+        return new UpstreamClientStats(circuitBreaker.stats(), rateLimiter.stats(), bulkhead.runningCalls(),
+                bulkhead.waitingCalls(), bulkhead.rejectedCalls(), retries.sum());
+    }
+
+    private CompletableFuture<byte[]> attempt(UpstreamCall call, int attempt) {
+        if (!circuitBreaker.permitsCalls()) {
+            return CompletableFuture.failedFuture(new CircuitBreakerOpenException());
+        }
+
+        // budget is taken before the bulkhead, so queued batch calls never hold permits interactive calls need
+        return rateLimiter.acquire(call.priority(), call.locations())
+                .thenCompose(admitted -> bulkhead.submit(() -> permittedSend(call, attempt)))
+                .handle((response, error) -> {
+                    Throwable failure = error != null ? unwrap(error) : statusFailure(response.statusCode());
+
+                    if (failure == null) {
+                        return CompletableFuture.completedFuture(response.body());
+                    }
+
+                    if (!isRetryable(failure) || attempt >= resilience.getMaxAttempts()) {
+                        return CompletableFuture.<byte[]>failedFuture(failure);
+                    }
+
+                    return retryLater(call, attempt, failure);
+                })
+                .thenCompose(result -> result);
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> permittedSend(UpstreamCall call, int attempt) {
+        // taken only now, so a call waiting for budget or a bulkhead slot never sits on a half-open trial permit
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return CompletableFuture.failedFuture(new CircuitBreakerOpenException());
+        }
+
+        // recorded before the bulkhead slot frees, so the next waiting call sees the breaker this call left behind
+        return send(call, attempt).whenComplete(this::recordOutcome);
+    }
+
+    private void recordOutcome(HttpResponse<byte[]> response, Throwable error) {
+        Throwable failure = error != null ? unwrap(error) : statusFailure(response.statusCode());
+
+        // a non-retryable status means upstream answered and the request itself is at fault, so the call was healthy
+        if (failure == null || failure instanceof UpstreamStatusException && !isRetryable(failure)) {
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> send(UpstreamCall call, int attempt) {
+        Observation observation = Observation.createNotStarted(CALLS_METRIC, observationRegistry)
+                .parentObservation(call.parentObservation())
+                .lowCardinalityKeyValue(PRIORITY_TAG, call.priority().name())
+                .highCardinalityKeyValue(ATTEMPT_TAG, String.valueOf(attempt))
+                .highCardinalityKeyValues(tracedParameters(call.request().uri()))
+                .start();
+
+        return weatherHttpClient.sendAsync(call.request(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    observation.lowCardinalityKeyValue(STATUS_TAG,
+                                    response != null ? String.valueOf(response.statusCode()) : NO_STATUS)
+                            .lowCardinalityKeyValue(VERSION_TAG, response != null && response.version() != null
+                                    ? response.version().name() : NO_VERSION)
+                            .lowCardinalityKeyValue(OUTCOME_TAG, outcomeOf(response, error));
+                    if (error != null) {
+                        observation.error(unwrap(error));
+                    }
+                    observation.stop();
+                });
+    }
+
+    private KeyValues tracedParameters(URI uri) {
+        if (uri.getRawQuery() == null) {
+            return KeyValues.empty();
+        }
+
+        return KeyValues.of(Arrays.stream(uri.getRawQuery().split(QUERY_SEPARATOR))
+                .map(parameter -> parameter.split(PARAMETER_SEPARATOR, 2))
+                .filter(parameter -> parameter.length == 2 && TRACED_PARAMETERS.containsKey(parameter[0]))
+                .map(parameter -> KeyValue.of(TRACED_PARAMETERS.get(parameter[0]), parameter[1]))
+                .toList());
+    }
+
+    private String outcomeOf(HttpResponse<byte[]> response, Throwable error) {
+        if (response == null) {
+            return unwrap(error) instanceof HttpTimeoutException ? "TIMEOUT" : "IO_ERROR";
+        }
+
+        int statusCode = response.statusCode();
+        if (statusCode >= SERVER_ERROR_FROM) {
+            return "SERVER_ERROR";
+        }
+        if (statusCode >= CLIENT_ERROR_FROM) {
+            return "CLIENT_ERROR";
+        }
+
+        return statusFailure(statusCode) == null ? "SUCCESS" : "UNKNOWN";
+    }
+
+    private CompletableFuture<byte[]> retryLater(UpstreamCall call, int attempt, Throwable failure) {
+        long backoffMillis = backoffMillis(attempt);
+
+        retries.increment();
+        log.debug("Retrying {} in {} ms after attempt {} failed: {}", call.request().uri(), backoffMillis, attempt,
+                failure.toString());
+
+        Executor delayed = CompletableFuture.delayedExecutor(backoffMillis, TimeUnit.MILLISECONDS, upstreamExecutor);
+
+        return CompletableFuture.supplyAsync(() -> attempt(call, attempt + 1), delayed)
+                .thenCompose(result -> result);
+    }
+
+    private long backoffMillis(int attempt) {
+        long initialMillis = resilience.getInitialBackoff().toMillis();
+        long cappedMillis = Math.min(resilience.getMaxBackoff().toMillis(),
+                initialMillis << Math.min(attempt - 1, MAX_BACKOFF_SHIFT));
+
+        // full jitter spreads retries of many callers instead of retrying them in lockstep
+        return cappedMillis > 0 ? ThreadLocalRandom.current().nextLong(cappedMillis + 1) : 0;
+    }
+
+    private Throwable statusFailure(int statusCode) {
+        return statusCode >= SUCCESS_STATUS_FROM && statusCode <= SUCCESS_STATUS_TO
+                ? null
+                : new UpstreamStatusException(statusCode);
+    }
+
+    private boolean isRetryable(Throwable failure) {
+        if (failure instanceof UpstreamStatusException statusException) {
+            int statusCode = statusException.getStatusCode();
+            return statusCode == TOO_MANY_REQUESTS || statusCode >= SERVER_ERROR_FROM;
+        }
+
+        return failure instanceof IOException;
+    }
+
+    private Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private record UpstreamCall(HttpRequest request, RequestPriority priority, int locations,
+                                Observation parentObservation) {
+    }
+}
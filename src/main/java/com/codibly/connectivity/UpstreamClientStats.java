@@ -0,0 +1,5 @@
+package com.codibly.connectivity;
+
+public record UpstreamClientStats(CircuitBreakerStats circuitBreaker, RateLimiterStats rateLimiter, int activeCalls,
+                                  int waitingCalls, long rejectedCalls, long retries) {
+}
@@ -0,0 +1,156 @@
+package com.codibly.connectivity;
+
+import com.codibly.config.UpstreamProperties;
+import com.codibly.enums.RequestPriority;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class UpstreamRateLimiter {
+
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+    private static final Duration DAY = Duration.ofDays(1);
+
+    private final boolean enabled;
+    private final int maxQueuedCalls;
+    private final Duration maxWait;
+    private final Clock clock;
+    private final TokenBucket perMinute;
+    private final TokenBucket perDay;
+    private final Queue<WaitingCall> waitingCalls = new PriorityQueue<>(Comparator
+            .comparing(WaitingCall::priority)
+            .thenComparingLong(WaitingCall::sequence));
+    private long nextSequence;
+    private boolean drainScheduled;
+    private long delayedCalls;
+    private long rejectedCalls;
+
+    public UpstreamRateLimiter(UpstreamProperties.RateLimit rateLimit, Clock clock) {
+        long nowMillis = clock.millis();
+
+        this.enabled = rateLimit.isEnabled();
+        this.maxQueuedCalls = rateLimit.getMaxQueuedCalls();
+        this.maxWait = rateLimit.getMaxWait();
+        this.clock = clock;
+        this.perMinute = new TokenBucket(rateLimit.getRequestsPerMinute(), MINUTE, nowMillis);
+        this.perDay = new TokenBucket(rateLimit.getRequestsPerDay(), DAY, nowMillis);
+    }
+
+    public CompletableFuture<Void> acquire(RequestPriority priority, int permits) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        synchronized (this) {
+            long nowMillis = clock.millis();
+
+            if (waitingCalls.isEmpty() && tryConsume(permits, nowMillis)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (waitingCalls.size() >= maxQueuedCalls) {
+                rejectedCalls++;
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "Upstream request budget exhausted and " + maxQueuedCalls + " calls already waiting"));
+            }
+            if (Math.max(perMinute.millisUntilAvailable(permits, nowMillis),
+                    perDay.millisUntilAvailable(permits, nowMillis)) > maxWait.toMillis()) {
+                // not even an empty queue would admit it in time, so the caller falls back right away
+                rejectedCalls++;
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "Upstream request budget exhausted for longer than " + maxWait));
+            }
+
+            WaitingCall waitingCall = new WaitingCall(priority, nextSequence++, permits, new CompletableFuture<>());
+            waitingCalls.add(waitingCall);
+            delayedCalls++;
+            scheduleDrain(nowMillis);
+
+            // a call cancelled or timed out while waiting leaves the queue instead of being admitted later
+            waitingCall.admission().whenComplete((admitted, error) -> {
+                if (error != null) {
+                    forget(waitingCall);
+                }
+            });
+            CompletableFuture.delayedExecutor(maxWait.toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> expire(waitingCall));
+
+            return waitingCall.admission();
+        }
+    }
+
+    public synchronized RateLimiterStats stats() {
+        long nowMillis = clock.millis();
+
+        return new RateLimiterStats(perMinute.available(nowMillis), perDay.available(nowMillis),
+                waitingCalls.size(), delayedCalls, rejectedCalls);
+    }
+
+    private void drain() {
+        List<WaitingCall> admitted = new ArrayList<>();
+
+        synchronized (this) {
+            drainScheduled = false;
+            long nowMillis = clock.millis();
+
+            while (!waitingCalls.isEmpty() && tryConsume(waitingCalls.peek().permits(), nowMillis)) {
+                admitted.add(waitingCalls.poll());
+            }
+
+            if (!waitingCalls.isEmpty()) {
+                scheduleDrain(nowMillis);
+            }
+        }
+
+        admitted.forEach(waitingCall -> waitingCall.admission().complete(null));
+    }
+
+    private synchronized void forget(WaitingCall waitingCall) {
+        waitingCalls.remove(waitingCall);
+    }
+
+    private void expire(WaitingCall waitingCall) {
+        synchronized (this) {
+            if (!waitingCalls.remove(waitingCall)) {
+                return;
+            }
+            rejectedCalls++;
+        }
+
+        waitingCall.admission().completeExceptionally(new RejectedExecutionException(
+                "Upstream request budget not available within " + maxWait));
+    }
+
+    private void scheduleDrain(long nowMillis) {
+        if (drainScheduled) {
+            return;
+        }
+
+        int permits = waitingCalls.peek().permits();
+        long delayMillis = Math.max(1, Math.max(perMinute.millisUntilAvailable(permits, nowMillis),
+                perDay.millisUntilAvailable(permits, nowMillis)));
+
+        drainScheduled = true;
+        CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS).execute(this::drain);
+    }
+
+    private boolean tryConsume(int permits, long nowMillis) {
+        if (perMinute.millisUntilAvailable(permits, nowMillis) > 0
+                || perDay.millisUntilAvailable(permits, nowMillis) > 0) {
+            return false;
+        }
+
+        return perMinute.tryConsume(permits, nowMillis) && perDay.tryConsume(permits, nowMillis);
+    }
+
+    private record WaitingCall(RequestPriority priority, long sequence, int permits,
+                               CompletableFuture<Void> admission) {
+    }
+}
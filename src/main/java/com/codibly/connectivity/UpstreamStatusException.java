@@ -0,0 +1,14 @@
+package com.codibly.connectivity;
+
+import lombok.Getter;
+
+@Getter
+public class UpstreamStatusException extends RuntimeException {
+
+    private final int statusCode;
+
+    public UpstreamStatusException(int statusCode) {
+        super("Upstream responded with status " + statusCode);
+        this.statusCode = statusCode;
+    }
+}
@@ -1,67 +1,329 @@
 package com.codibly.connectivity;
 
+import com.codibly.config.AsyncConfig;
+import com.codibly.config.UpstreamProperties;
+import com.codibly.dtos.LocationDTO;
 import com.codibly.dtos.WeatherDTO;
+import com.codibly.enums.RequestPriority;
 import com.codibly.mappers.WeatherJacksonMapper;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class WeatherAPIHandler {
 
-    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder().build();
-    private static final String WEATHER_API_URL = "https://api.open-meteo.com/v1/forecast?";
-    private static final String LATITUDE = "latitude=";
+    private static final String LATITUDE = "?latitude=";
     private static final String LONGITUDE = "&longitude=";
     private static final String START_DATE = "&start_date=";
     private static final String END_DATE = "&end_date=";
     private static final String REQUIRED_PARAMETERS = "&hourly=pressure_msl&daily=weather_code,temperature_2m_max,"
             + "temperature_2m_min,sunshine_duration&timezone=auto";
+    private static final String COORDINATE_SEPARATOR = ",";
+    private static final String FETCH_METRIC = "weather.upstream.fetch";
+    private static final String PARSE_METRIC = "weather.upstream.parse";
+    private static final String PAYLOAD_METRIC = "weather.upstream.payload";
+    private static final String DROPPED_DAYS_METRIC = "weather.upstream.dropped.days";
+    private static final String OPERATION_TAG = "operation";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final String ONE_DAY = "one_day";
+    private static final String DATE_RANGE = "date_range";
+    private static final String LOCATIONS = "locations";
+    private static final String BYTES = "bytes";
+    private static final String LATITUDE_KEY = "weather.latitude";
+    private static final String LONGITUDE_KEY = "weather.longitude";
+    private static final String START_DATE_KEY = "weather.start_date";
+    private static final String END_DATE_KEY = "weather.end_date";
+    private static final String LOCATIONS_KEY = "weather.locations";
 
     private final WeatherJacksonMapper weatherJacksonMapper;
+    private final UpstreamClient upstreamClient;
+    private final LastKnownGoodStore lastKnownGoodStore;
+    private final UpstreamProperties upstreamProperties;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
 
-    public Optional<WeatherDTO> fetchOneDayWeather(double latitude, double longitude, LocalDate date) {
-        try {
-            String geographicCoordinates = LATITUDE + latitude + LONGITUDE + longitude;
-            String dateParameter = START_DATE + date + END_DATE + date;
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(WEATHER_API_URL + geographicCoordinates + REQUIRED_PARAMETERS + dateParameter))
-                    .GET()
-                    .build();
-            HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-
-            return Optional.ofNullable(weatherJacksonMapper.mapWeather(response.body()));
-        } catch (IOException | InterruptedException e) {
-            log.error("Error occurred while fetching weather data for latitude: {}, longitude: {}, date: {}",
-                    latitude, longitude, date, e);
-        }
+    @Qualifier(AsyncConfig.UPSTREAM_EXECUTOR)
+    private final Executor upstreamExecutor;
+
+    private final SingleFlight<URI, Optional<WeatherDTO>> oneDayFlights = new SingleFlight<>();
+    private final SingleFlight<URI, List<WeatherDTO>> dateRangeFlights = new SingleFlight<>();
 
-        return Optional.empty();
+    public Optional<WeatherDTO> fetchOneDayWeather(double latitude, double longitude, LocalDate date) {
+        return fetchOneDayWeatherAsync(latitude, longitude, date).join();
     }
 
     public List<WeatherDTO> fetchWeatherForDateRange(double latitude, double longitude,
                                                      LocalDate startDate, LocalDate endDate) {
-        List<WeatherDTO> weatherDataList = new ArrayList<>();
-        LocalDate currentDate = startDate;
+        return fetchWeatherForDateRangeAsync(latitude, longitude, startDate, endDate).join();
+    }
+
+    public CompletableFuture<Optional<WeatherDTO>> fetchOneDayWeatherAsync(double latitude, double longitude,
+                                                                           LocalDate date) {
+        HttpRequest request = buildRequest(latitude, longitude, date, date);
+
+        return oneDayFlights.execute(request.uri(), () -> observedFetch(ONE_DAY,
+                locationAttributes(latitude, longitude, date, date), 1,
+                fetch -> upstreamClient.get(request).thenApplyAsync(body -> Optional.ofNullable(
+                        parse(fetch, ONE_DAY, body, weatherJacksonMapper::mapWeather)), upstreamExecutor),
+                weatherDTO -> weatherDTO.isPresent() ? 1 : 0)
+                .whenComplete((weatherDTO, error) -> {
+                    if (weatherDTO != null) {
+                        weatherDTO.ifPresent(day -> lastKnownGoodStore.remember(latitude, longitude, List.of(day)));
+                    }
+                })
+                .exceptionally(error -> {
+                    log.error("Error occurred while fetching weather data for latitude: {}, longitude: {}, date: {}",
+                            latitude, longitude, date, error);
+                    return Optional.empty();
+                }));
+    }
+
+    public CompletableFuture<List<WeatherDTO>> fetchWeatherForDateRangeAsync(double latitude, double longitude,
+                                                                             LocalDate startDate,
+                                                                             LocalDate endDate) {
+        return fetchWeatherForDateRangeAsync(latitude, longitude, startDate, endDate, RequestPriority.INTERACTIVE);
+    }
+
+    public CompletableFuture<List<WeatherDTO>> fetchWeatherForDateRangeAsync(double latitude, double longitude,
+                                                                             LocalDate startDate, LocalDate endDate,
+                                                                             RequestPriority priority) {
+        if (startDate.isAfter(endDate)) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        HttpRequest request = buildRequest(latitude, longitude, startDate, endDate);
+        int expectedDays = daysBetween(startDate, endDate);
+
+        return dateRangeFlights.execute(request.uri(), () -> observedFetch(DATE_RANGE,
+                locationAttributes(latitude, longitude, startDate, endDate), expectedDays,
+                fetch -> upstreamClient.get(request, priority, 1).thenApplyAsync(
+                        body -> parse(fetch, DATE_RANGE, body, weatherJacksonMapper::mapWeatherRange),
+                        upstreamExecutor),
+                List::size)
+                .whenComplete((weatherDataList, error) -> {
+                    if (weatherDataList != null) {
+                        lastKnownGoodStore.remember(latitude, longitude, weatherDataList);
+                    }
+                })
+                .exceptionally(error -> {
+                    log.error("Error occurred while fetching weather data for latitude: {}, longitude: {}, "
+                            + "dates: {} - {}", latitude, longitude, startDate, endDate, error);
+                    return Collections.emptyList();
+                }));
+    }
+
+    public CompletableFuture<DateRangeFetchResult> fetchWeatherPerDayAsync(double latitude, double longitude,
+                                                                           LocalDate startDate,
+                                                                           LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return CompletableFuture.completedFuture(new DateRangeFetchResult(List.of(), List.of()));
+        }
+
+        AsyncSemaphore requestLimiter = new AsyncSemaphore(upstreamProperties.getFanOut().getPerRequestConcurrency());
+        List<LocalDate> dates = startDate.datesUntil(endDate.plusDays(1)).toList();
+        List<CompletableFuture<Optional<WeatherDTO>>> dayFetches = new ArrayList<>(dates.size());
+
+        for (LocalDate date : dates) {
+            dayFetches.add(requestLimiter.submit(() -> fetchOneDayWeatherAsync(latitude, longitude, date)));
+        }
+
+        return CompletableFuture.allOf(dayFetches.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> assembleInDateOrder(dates, dayFetches));
+    }
+
+    public List<LocationChunk<LocationFetchResult>> fetchWeatherForLocationChunksAsync(
+            List<LocationDTO> locations, LocalDate startDate, LocalDate endDate) {
+        int locationsPerCall = upstreamProperties.getBatch().getLocationsPerCall();
+        List<LocationChunk<LocationFetchResult>> chunkFetches = new ArrayList<>();
+
+        for (int from = 0; from < locations.size(); from += locationsPerCall) {
+            List<LocationDTO> chunk = locations.subList(from, Math.min(from + locationsPerCall, locations.size()));
+            chunkFetches.add(new LocationChunk<>(chunk, fetchLocationChunkAsync(chunk, startDate, endDate)));
+        }
+
+        return chunkFetches;
+    }
+
+    public List<WeatherDTO> lastKnownGood(double latitude, double longitude, LocalDate startDate,
+                                          LocalDate endDate) {
+        return lastKnownGoodStore.find(latitude, longitude, startDate, endDate);
+    }
+
+    public UpstreamClientStats resilienceStats() {
+        return upstreamClient.stats();
+    }
+
+    public SingleFlightStats coalescingStats() {
+        return oneDayFlights.stats().plus(dateRangeFlights.stats());
+    }
+
+    private DateRangeFetchResult assembleInDateOrder(List<LocalDate> dates,
+                                                     List<CompletableFuture<Optional<WeatherDTO>>> dayFetches) {
+        List<WeatherDTO> weatherDataList = new ArrayList<>(dates.size());
+        List<LocalDate> failedDates = new ArrayList<>();
+
+        for (int day = 0; day < dates.size(); day++) {
+            Optional<WeatherDTO> weatherDTO = dayFetches.get(day).join();
 
-        while (!currentDate.isAfter(endDate)) {
-            fetchOneDayWeather(latitude, longitude, currentDate).ifPresent(weatherDataList::add);
-            currentDate = currentDate.plusDays(1);
+            if (weatherDTO.isPresent()) {
+                weatherDataList.add(weatherDTO.get());
+            } else {
+                failedDates.add(dates.get(day));
+            }
         }
 
-        return weatherDataList;
+        return new DateRangeFetchResult(weatherDataList, failedDates);
+    }
+
+    private CompletableFuture<List<LocationFetchResult>> fetchLocationChunkAsync(List<LocationDTO> chunk,
+                                                                               LocalDate startDate,
+                                                                               LocalDate endDate) {
+        HttpRequest request = buildRequest(joinCoordinates(chunk, LocationDTO::getLatitude),
+                joinCoordinates(chunk, LocationDTO::getLongitude), startDate, endDate);
+        int expectedDays = daysBetween(startDate, endDate) * chunk.size();
+
+        KeyValues attributes = KeyValues.of(LOCATIONS_KEY, String.valueOf(chunk.size()),
+                START_DATE_KEY, startDate.toString(), END_DATE_KEY, endDate.toString());
+
+        return observedFetch(LOCATIONS, attributes, expectedDays,
+                fetch -> upstreamClient.get(request, RequestPriority.BATCH, chunk.size()).thenApplyAsync(
+                        body -> pairWithChunk(chunk, parse(fetch, LOCATIONS, body,
+                                weatherJacksonMapper::mapWeatherLocations)), upstreamExecutor),
+                this::fetchedDays)
+                .whenComplete((fetchResults, error) -> {
+                    if (fetchResults != null) {
+                        fetchResults.forEach(fetchResult -> lastKnownGoodStore.remember(
+                                fetchResult.location().getLatitude(), fetchResult.location().getLongitude(),
+                                fetchResult.weatherData()));
+                    }
+                })
+                .exceptionally(error -> {
+                    log.error("Error occurred while fetching weather data for {} locations, dates: {} - {}",
+                            chunk.size(), startDate, endDate, error);
+                    return pairWithChunk(chunk, Collections.emptyList());
+                });
+    }
+
+    private <T> CompletableFuture<T> observedFetch(String operation, KeyValues attributes, int expectedDays,
+                                                   Function<Observation, CompletableFuture<T>> fetch,
+                                                   ToIntFunction<T> fetchedDays) {
+        Observation observation = Observation.createNotStarted(FETCH_METRIC, observationRegistry)
+                .lowCardinalityKeyValue(OPERATION_TAG, operation)
+                .highCardinalityKeyValues(attributes)
+                .start();
+        CompletableFuture<T> result;
+
+        // the upstream call is made inside the scope, so its span becomes a child of this one
+        try (Observation.Scope scope = observation.openScope()) {
+            result = fetch.apply(observation);
+        } catch (RuntimeException error) {
+            observation.error(error);
+            observation.stop();
+            throw error;
+        }
+
+        return result.whenComplete((fetchResult, error) -> {
+            int droppedDays = fetchResult != null ? expectedDays - fetchedDays.applyAsInt(fetchResult) : expectedDays;
+            String outcome = error != null ? "ERROR" : droppedDays > 0 ? "INCOMPLETE" : "SUCCESS";
+
+            observation.lowCardinalityKeyValue(OUTCOME_TAG, outcome);
+            if (error != null) {
+                observation.error(error);
+            }
+            observation.stop();
+            if (droppedDays > 0) {
+                meterRegistry.counter(DROPPED_DAYS_METRIC, OPERATION_TAG, operation).increment(droppedDays);
+            }
+        });
+    }
+
+    private <T> T parse(Observation fetch, String operation, byte[] body, Function<byte[], T> mapper) {
+        DistributionSummary.builder(PAYLOAD_METRIC)
+                .baseUnit(BYTES)
+                .tag(OPERATION_TAG, operation)
+                .register(meterRegistry)
+                .record(body.length);
+
+        return Observation.createNotStarted(PARSE_METRIC, observationRegistry)
+                .parentObservation(fetch)
+                .lowCardinalityKeyValue(OPERATION_TAG, operation)
+                .observe(() -> mapper.apply(body));
+    }
+
+    private KeyValues locationAttributes(double latitude, double longitude, LocalDate startDate, LocalDate endDate) {
+        return KeyValues.of(LATITUDE_KEY, String.valueOf(latitude), LONGITUDE_KEY, String.valueOf(longitude),
+                START_DATE_KEY, startDate.toString(), END_DATE_KEY, endDate.toString());
+    }
+
+    private int fetchedDays(List<LocationFetchResult> fetchResults) {
+        return fetchResults.stream().mapToInt(fetchResult -> fetchResult.weatherData().size()).sum();
+    }
+
+    private int daysBetween(LocalDate startDate, LocalDate endDate) {
+        return (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+    }
+
+    private List<LocationFetchResult> pairWithChunk(List<LocationDTO> chunk, List<List<WeatherDTO>> locationResults) {
+        boolean aligned = locationResults.size() == chunk.size();
+
+        if (!aligned && !locationResults.isEmpty()) {
+            log.warn("Expected forecasts for {} locations, but upstream returned {}", chunk.size(),
+                    locationResults.size());
+        }
+
+        List<LocationFetchResult> fetchResults = new ArrayList<>(chunk.size());
+
+        for (int index = 0; index < chunk.size(); index++) {
+            List<WeatherDTO> weatherData = aligned ? locationResults.get(index) : Collections.emptyList();
+            fetchResults.add(new LocationFetchResult(chunk.get(index), weatherData));
+        }
+
+        return fetchResults;
+    }
+
+    private String joinCoordinates(List<LocationDTO> locations, Function<LocationDTO, Double> coordinate) {
+        return locations.stream()
+                .map(coordinate)
+                .map(String::valueOf)
+                .collect(Collectors.joining(COORDINATE_SEPARATOR));
+    }
+
+    private HttpRequest buildRequest(double latitude, double longitude, LocalDate startDate, LocalDate endDate) {
+        return buildRequest(String.valueOf(latitude), String.valueOf(longitude), startDate, endDate);
+    }
+
+    private HttpRequest buildRequest(String latitudes, String longitudes, LocalDate startDate, LocalDate endDate) {
+        String geographicCoordinates = LATITUDE + latitudes + LONGITUDE + longitudes;
+        String dateParameter = START_DATE + startDate + END_DATE + endDate;
+        String baseUrl = upstreamProperties.getBaseUrl();
+
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + geographicCoordinates + REQUIRED_PARAMETERS + dateParameter))
+                .timeout(upstreamProperties.getResilience().getRequestTimeout())
+                .GET()
+                .build();
     }
 }
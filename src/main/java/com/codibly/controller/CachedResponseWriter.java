@@ -0,0 +1,134 @@
+package com.codibly.controller;
+
+import com.codibly.cache.CachedResponse;
+import com.codibly.cache.ResponseBytesCache;
+import com.codibly.dtos.LocationDTO;
+import com.codibly.enums.ResponseType;
+import com.codibly.services.CoordinateResolver;
+import com.codibly.services.WeatherService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+@RequiredArgsConstructor
+@Component
+public class CachedResponseWriter {
+
+    private static final String GZIP = "gzip";
+    private static final String ANY = "*";
+    private static final String WEAK_ETAG_PREFIX = "W/";
+    private static final String LIST_SEPARATOR = ",";
+    private static final String PARAMETER_SEPARATOR = ";";
+    private static final Pattern REJECTED_CODING = Pattern.compile(".*;\\s*q\\s*=\\s*0(\\.0*)?\\s*$");
+
+    private final ResponseBytesCache responseBytesCache;
+    private final CoordinateResolver coordinateResolver;
+    private final WeatherService weatherService;
+    private final ObjectMapper objectMapper;
+
+    public <T> CompletableFuture<ResponseEntity<byte[]>> respond(double latitude, double longitude, ResponseType type,
+                                                                 HttpHeaders requestHeaders,
+                                                                 Supplier<CompletableFuture<T>> loader) {
+        LocationDTO resolved = coordinateResolver.resolve(latitude, longitude);
+        Optional<CachedResponse> cached = responseBytesCache.get(resolved.getLatitude(), resolved.getLongitude(),
+                type);
+
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(toResponseEntity(cached.get(), requestHeaders));
+        }
+
+        // read before loading, so a forecast of this cell replaced while the body is built keeps it out of the cache
+        long generation = responseBytesCache.generation(resolved.getLatitude(), resolved.getLongitude());
+
+        return loader.get().thenApply(body -> {
+            Duration freshness = weatherService.weeklyForecastFreshness(latitude, longitude);
+            CachedResponse response = responseBytesCache.put(resolved.getLatitude(), resolved.getLongitude(), type,
+                    serialize(body), freshness, generation);
+
+            return toResponseEntity(response, requestHeaders);
+        });
+    }
+
+    private ResponseEntity<byte[]> toResponseEntity(CachedResponse response, HttpHeaders requestHeaders) {
+        boolean gzip = response.hasGzippedBody() && acceptsGzip(requestHeaders);
+        String etag = gzip ? response.gzippedEtag() : response.etag();
+        Duration remaining = Duration.between(Instant.now(), response.freshUntil());
+        boolean notModified = matches(requestHeaders, etag);
+        HttpStatus status = notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK;
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status)
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(maxAge(remaining)).cachePublic())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (notModified) {
+            return builder.build();
+        }
+
+        builder.contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+
+        return builder.body(gzip ? response.gzippedBody() : response.body());
+    }
+
+    private Duration maxAge(Duration remaining) {
+        if (remaining.isNegative()) {
+            return Duration.ZERO;
+        }
+
+        // rounded up, so a response served right after it was built advertises the full freshness
+        return Duration.ofSeconds(remaining.getNano() > 0 ? remaining.getSeconds() + 1 : remaining.getSeconds());
+    }
+
+    private boolean acceptsGzip(HttpHeaders requestHeaders) {
+        for (String value : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(LIST_SEPARATOR)) {
+                String name = coding.split(PARAMETER_SEPARATOR, 2)[0].trim();
+
+                if ((GZIP.equalsIgnoreCase(name) || ANY.equals(name)) && !REJECTED_CODING.matcher(coding).matches()) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean matches(HttpHeaders requestHeaders, String etag) {
+        for (String candidate : requestHeaders.getIfNoneMatch()) {
+            String trimmed = candidate.trim();
+
+            // If-None-Match uses weak comparison, so a validator downgraded by a proxy still matches
+            if (ANY.equals(trimmed) || etag.equals(trimmed.startsWith(WEAK_ETAG_PREFIX)
+                    ? trimmed.substring(WEAK_ETAG_PREFIX.length()) : trimmed)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+}
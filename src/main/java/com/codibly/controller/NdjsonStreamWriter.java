@@ -0,0 +1,81 @@
+package com.codibly.controller;
+
+import com.codibly.connectivity.LocationChunk;
+import com.codibly.dtos.LocationErrorDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
+@Component
+public class NdjsonStreamWriter {
+
+    private static final int LINE_SEPARATOR = '\n';
+
+    private final ObjectWriter objectWriter;
+
+    public NdjsonStreamWriter(ObjectMapper objectMapper) {
+        this.objectWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public <T> ResponseBodyEmitter inCompletionOrder(List<LocationChunk<T>> chunks) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+
+        // each chunk is written by the thread that completed it, so no request thread waits for upstream
+        CompletableFuture<?>[] writes = chunks.stream()
+                .map(chunk -> chunk.result()
+                        .<List<?>>handle((lines, error) -> error == null ? lines : errorLines(chunk, error))
+                        .thenAccept(lines -> send(emitter, lines)))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(writes).whenComplete((ignored, error) -> {
+            if (error == null) {
+                emitter.complete();
+            } else {
+                emitter.completeWithError(error);
+            }
+        });
+
+        return emitter;
+    }
+
+    private List<LocationErrorDTO> errorLines(LocationChunk<?> chunk, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        // the status line is long gone, so a failed chunk is reported in place of its locations' lines
+        log.warn("Streaming an error for {} locations: {}", chunk.locations().size(), cause.toString());
+        return chunk.locations().stream()
+                .map(location -> LocationErrorDTO.builder()
+                        .latitude(location.getLatitude())
+                        .longitude(location.getLongitude())
+                        .error(cause.getMessage())
+                        .build())
+                .toList();
+    }
+
+    private void send(ResponseBodyEmitter emitter, List<?> lines) {
+        ByteArrayOutputStream chunkBytes = new ByteArrayOutputStream();
+
+        try {
+            for (Object line : lines) {
+                objectWriter.writeValue(chunkBytes, line);
+                chunkBytes.write(LINE_SEPARATOR);
+            }
+            // one send per chunk, so lines of chunks completing at the same time never interleave
+            emitter.send(chunkBytes.toByteArray(), MediaType.APPLICATION_NDJSON);
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+}
@@ -1,21 +1,31 @@
 package com.codibly.controller;
 
-import com.codibly.dtos.WeatherForecastDTO;
-import com.codibly.dtos.WeatherSummaryDTO;
+import com.codibly.dtos.BatchLocationsDTO;
+import com.codibly.dtos.LocationForecastDTO;
+import com.codibly.dtos.LocationSummaryDTO;
+import com.codibly.enums.ResponseType;
 import com.codibly.services.WeatherService;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RequestMapping("/weather")
 @RequiredArgsConstructor
@@ -35,9 +45,11 @@ public class WeatherController {
     private static final String MAX_LONGITUDE_MESSAGE = "Longitude must be <= " + MAX_LONGITUDE;
 
     private final WeatherService weatherService;
+    private final NdjsonStreamWriter ndjsonStreamWriter;
+    private final CachedResponseWriter cachedResponseWriter;
 
     @GetMapping("/forecast")
-    public ResponseEntity<List<WeatherForecastDTO>> getWeeklyForecast(
+    public CompletableFuture<ResponseEntity<byte[]>> getWeeklyForecast(
             @RequestParam @NotNull(message = "Latitude" + NOT_NULL_MESSAGE)
             @Min(value = MIN_LATITUDE, message = MIN_LATITUDE_MESSAGE)
             @Max(value = MAX_LATITUDE, message = MAX_LATITUDE_MESSAGE)
@@ -45,15 +57,15 @@ public class WeatherController {
             @RequestParam @NotNull(message = "Longitude" + NOT_NULL_MESSAGE)
             @Min(value = MIN_LONGITUDE, message = MIN_LONGITUDE_MESSAGE)
             @Max(value = MAX_LONGITUDE, message = MAX_LONGITUDE_MESSAGE)
-            Double longitude) {
+            Double longitude,
+            @RequestHeader HttpHeaders requestHeaders) {
 
-        List<WeatherForecastDTO> forecast = weatherService.getWeeklyForecast(latitude, longitude);
-
-        return ResponseEntity.ok(forecast);
+        return cachedResponseWriter.respond(latitude, longitude, ResponseType.FORECAST, requestHeaders,
+                () -> weatherService.getWeeklyForecast(latitude, longitude));
     }
 
     @GetMapping("/summary")
-    public WeatherSummaryDTO getWeeklySummary(
+    public CompletableFuture<ResponseEntity<byte[]>> getWeeklySummary(
             @RequestParam @NotNull(message = "Latitude" + NOT_NULL_MESSAGE)
             @Min(value = MIN_LATITUDE, message = MIN_LATITUDE_MESSAGE)
             @Max(value = MAX_LATITUDE, message = MAX_LATITUDE_MESSAGE)
@@ -61,8 +73,44 @@ public class WeatherController {
             @RequestParam @NotNull(message = "Longitude" + NOT_NULL_MESSAGE)
             @Min(value = MIN_LONGITUDE, message = MIN_LONGITUDE_MESSAGE)
             @Max(value = MAX_LONGITUDE, message = MAX_LONGITUDE_MESSAGE)
-            Double longitude) {
+            Double longitude,
+            @RequestHeader HttpHeaders requestHeaders) {
+
+        return cachedResponseWriter.respond(latitude, longitude, ResponseType.SUMMARY, requestHeaders,
+                () -> weatherService.getWeeklySummary(latitude, longitude));
+    }
+
+    @PostMapping("/forecast/batch")
+    public CompletableFuture<List<LocationForecastDTO>> getWeeklyForecasts(
+            @RequestBody @Valid BatchLocationsDTO batchLocations) {
+
+        return weatherService.getWeeklyForecasts(batchLocations.getLocations());
+    }
+
+    @PostMapping("/summary/batch")
+    public CompletableFuture<List<LocationSummaryDTO>> getWeeklySummaries(
+            @RequestBody @Valid BatchLocationsDTO batchLocations) {
+
+        return weatherService.getWeeklySummaries(batchLocations.getLocations());
+    }
+
+    @PostMapping(value = "/forecast/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamWeeklyForecasts(
+            @RequestBody @Valid BatchLocationsDTO batchLocations) {
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamWriter.inCompletionOrder(
+                        weatherService.getWeeklyForecastChunks(batchLocations.getLocations())));
+    }
+
+    @PostMapping(value = "/summary/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamWeeklySummaries(
+            @RequestBody @Valid BatchLocationsDTO batchLocations) {
 
-        return weatherService.getWeeklySummary(latitude, longitude);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonStreamWriter.inCompletionOrder(
+                        weatherService.getWeeklySummaryChunks(batchLocations.getLocations())));
     }
 }
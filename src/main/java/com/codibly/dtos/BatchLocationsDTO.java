@@ -0,0 +1,27 @@
+package com.codibly.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLocationsDTO {
+
+    public static final int MAX_LOCATIONS = 1000;
+
+    @NotEmpty(message = "Locations must not be empty")
+    @Size(max = MAX_LOCATIONS, message = "At most " + MAX_LOCATIONS + " locations can be requested at once")
+    private List<@Valid @NotNull(message = "Location must not be null") LocationDTO> locations;
+}
@@ -0,0 +1,35 @@
+package com.codibly.dtos;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationDTO {
+
+    private static final long MIN_LATITUDE = -90L;
+    private static final long MAX_LATITUDE = 90L;
+    private static final long MIN_LONGITUDE = -180L;
+    private static final long MAX_LONGITUDE = 180L;
+
+    @NotNull(message = "Latitude must not be null")
+    @Min(value = MIN_LATITUDE, message = "Latitude must be >= " + MIN_LATITUDE)
+    @Max(value = MAX_LATITUDE, message = "Latitude must be <= " + MAX_LATITUDE)
+    private Double latitude;
+
+    @NotNull(message = "Longitude must not be null")
+    @Min(value = MIN_LONGITUDE, message = "Longitude must be >= " + MIN_LONGITUDE)
+    @Max(value = MAX_LONGITUDE, message = "Longitude must be <= " + MAX_LONGITUDE)
+    private Double longitude;
+}
@@ -0,0 +1,17 @@
+package com.codibly.dtos;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+public class LocationForecastDTO {
+
+    private double latitude;
+    private double longitude;
+    private List<WeatherForecastDTO> forecast;
+}
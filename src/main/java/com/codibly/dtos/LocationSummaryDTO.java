@@ -0,0 +1,15 @@
+package com.codibly.dtos;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Builder
+@Getter
+@Setter
+public class LocationSummaryDTO {
+
+    private double latitude;
+    private double longitude;
+    private WeatherSummaryDTO summary;
+}
@@ -1,26 +1,44 @@
 package com.codibly.dtos;
 
+import com.codibly.serializers.NaNAsNullArraySerializer;
+import com.codibly.serializers.NaNAsNullSerializer;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
-import java.util.List;
 
 @Builder
 @Getter
 @Setter
 public class WeatherDTO {
 
-    private Double latitude;
-    private Double longitude;
+    private static final int[] NO_WEATHER_CODES = new int[0];
+    private static final double[] NO_PRESSURE_READINGS = new double[0];
+
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullSerializer.class)
+    private double latitude = Double.NaN;
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullSerializer.class)
+    private double longitude = Double.NaN;
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
     private LocalDate date;
-    private List<Integer> weatherCodes;
-    private Double maxTemp;
-    private Double minTemp;
-    private Double sunshineDuration;
-    private List<Double> dailyPressure;
+    @Builder.Default
+    private int[] weatherCodes = NO_WEATHER_CODES;
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullSerializer.class)
+    private double maxTemp = Double.NaN;
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullSerializer.class)
+    private double minTemp = Double.NaN;
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullSerializer.class)
+    private double sunshineDuration = Double.NaN;
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullArraySerializer.class)
+    private double[] dailyPressure = NO_PRESSURE_READINGS;
 }
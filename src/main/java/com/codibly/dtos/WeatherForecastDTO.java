@@ -1,12 +1,13 @@
 package com.codibly.dtos;
 
+import com.codibly.serializers.NaNAsNullSerializer;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
-import java.util.List;
 
 @Builder
 @Getter
@@ -15,8 +16,14 @@ public class WeatherForecastDTO {
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
     private LocalDate date;
-    private List<Integer> weatherCodes;
-    private Double maxTempC;
-    private Double minTempC;
-    private Double estimatedEnergyKWh;
+    private int[] weatherCodes;
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullSerializer.class)
+    private double maxTempC = Double.NaN;
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullSerializer.class)
+    private double minTempC = Double.NaN;
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullSerializer.class)
+    private double estimatedEnergyKWh = Double.NaN;
 }
@@ -1,5 +1,7 @@
 package com.codibly.dtos;
 
+import com.codibly.serializers.NaNAsNullSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -9,9 +11,17 @@ import lombok.Setter;
 @Setter
 public class WeatherSummaryDTO {
 
-    private Double avgPressureHPa;
-    private Double avgSunshineDurationSeconds;
-    private Double lowestTemperatureCelsius;
-    private Double highestTemperatureCelsius;
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullSerializer.class)
+    private double avgPressureHPa = Double.NaN;
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullSerializer.class)
+    private double avgSunshineDurationSeconds = Double.NaN;
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullSerializer.class)
+    private double lowestTemperatureCelsius = Double.NaN;
+    @Builder.Default
+    @JsonSerialize(using = NaNAsNullSerializer.class)
+    private double highestTemperatureCelsius = Double.NaN;
     private String forecastSummary;
 }
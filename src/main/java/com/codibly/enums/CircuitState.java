@@ -0,0 +1,8 @@
+package com.codibly.enums;
+
+public enum CircuitState {
+
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+}
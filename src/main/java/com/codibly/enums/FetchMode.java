@@ -0,0 +1,7 @@
+package com.codibly.enums;
+
+public enum FetchMode {
+
+    RANGE,
+    PER_DAY
+}
@@ -0,0 +1,7 @@
+package com.codibly.enums;
+
+public enum RequestPriority {
+
+    INTERACTIVE,
+    BATCH
+}
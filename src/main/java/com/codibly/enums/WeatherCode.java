@@ -38,14 +38,20 @@ public enum WeatherCode {
     THUNDERSTORM_MODERATE(96, WeatherCategory.THUNDERSTORM),
     THUNDERSTORM_HEAVY(99, WeatherCategory.THUNDERSTORM);
 
+    private static final int MAX_CODE = 99;
+    private static final WeatherCategory[] CATEGORIES_BY_CODE = new WeatherCategory[MAX_CODE + 1];
+
+    static {
+        Arrays.fill(CATEGORIES_BY_CODE, WeatherCategory.UNKNOWN);
+        for (WeatherCode weatherCode : values()) {
+            CATEGORIES_BY_CODE[weatherCode.getCode()] = weatherCode.getCategory();
+        }
+    }
+
     private final int code;
     private final WeatherCategory category;
 
     public static WeatherCategory getCategoryForCode(int code) {
-        return Arrays.stream(values())
-                .filter(weatherCode -> weatherCode.getCode() == code)
-                .map(WeatherCode::getCategory)
-                .findFirst()
-                .orElse(WeatherCategory.UNKNOWN);
+        return code >= 0 && code <= MAX_CODE ? CATEGORIES_BY_CODE[code] : WeatherCategory.UNKNOWN;
     }
 }
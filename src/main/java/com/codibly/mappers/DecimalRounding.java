@@ -0,0 +1,23 @@
+package com.codibly.mappers;
+
+final class DecimalRounding {
+
+    private static final double TWO_DECIMALS_SCALE = 100.0;
+    private static final double HALF = 0.5;
+
+    private DecimalRounding() {
+    }
+
+    static double roundToTwoDecimals(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return value;
+        }
+
+        double scaled = Math.abs(value) * TWO_DECIMALS_SCALE;
+        double floor = Math.floor(scaled);
+        // value * 100 can land one ulp below an exact .5 (1.005 -> 100.49999999999999), round those up as well
+        double rounded = scaled - floor + Math.ulp(scaled) >= HALF ? floor + 1 : floor;
+
+        return rounded == 0 ? 0.0 : Math.copySign(rounded / TWO_DECIMALS_SCALE, value);
+    }
+}
@@ -4,15 +4,11 @@ import com.codibly.dtos.WeatherDTO;
 import com.codibly.dtos.WeatherForecastDTO;
 import com.codibly.dtos.WeatherSummaryDTO;
 import com.codibly.enums.WeatherCategory;
-import com.codibly.enums.WeatherCode;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+
+import static com.codibly.mappers.DecimalRounding.roundToTwoDecimals;
 
 @Component
 public class WeatherDTOMapper {
@@ -32,47 +28,31 @@ public class WeatherDTOMapper {
     }
 
     public WeatherSummaryDTO toSummaryDTO(List<WeatherDTO> weatherDataList) {
-        double avgPressure = weatherDataList.stream()
-                .flatMap(dto -> dto.getDailyPressure() != null ? dto.getDailyPressure().stream()
-                        : Stream.empty())
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
-
-        double avgSunshineDuration = weatherDataList.stream()
-                .mapToDouble(dto -> dto.getSunshineDuration() != null ? dto.getSunshineDuration() : 0.0)
-                .average()
-                .orElse(0.0);
+        WeatherSummaryStatistics statistics = new WeatherSummaryStatistics();
 
-        double lowestTemperature = weatherDataList.stream()
-                .mapToDouble(dto -> dto.getMinTemp() != null ? dto.getMinTemp() : Double.MAX_VALUE)
-                .min()
-                .orElse(0.0);
+        for (WeatherDTO weatherDTO : weatherDataList) {
+            statistics.accept(weatherDTO);
+        }
 
-        double highestTemperature = weatherDataList.stream()
-                .mapToDouble(dto -> dto.getMaxTemp() != null ? dto.getMaxTemp() : Double.MIN_VALUE)
-                .max()
-                .orElse(0.0);
+        return toSummaryDTO(statistics);
+    }
 
-        String mostFrequentCondition = getMostFrequentWeatherCategory(weatherDataList);
+    public WeatherSummaryDTO toSummaryDTO(WeatherSummaryStatistics statistics) {
+        String mostFrequentCondition = statistics.getMostFrequentCategory()
+                .map(WeatherCategory::getDescription)
+                .orElse(String.valueOf(WeatherCategory.UNKNOWN));
 
         return WeatherSummaryDTO.builder()
-                .avgPressureHPa(roundToTwoDecimals(avgPressure))
-                .avgSunshineDurationSeconds(roundToTwoDecimals(avgSunshineDuration))
-                .lowestTemperatureCelsius(lowestTemperature)
-                .highestTemperatureCelsius(highestTemperature)
+                .avgPressureHPa(roundToTwoDecimals(statistics.getAveragePressure()))
+                .avgSunshineDurationSeconds(roundToTwoDecimals(statistics.getAverageSunshineDuration()))
+                .lowestTemperatureCelsius(statistics.getLowestTemperature())
+                .highestTemperatureCelsius(statistics.getHighestTemperature())
                 .forecastSummary(mostFrequentCondition)
                 .build();
     }
 
-    private double roundToTwoDecimals(double value) {
-        return BigDecimal.valueOf(value)
-                .setScale(2, RoundingMode.HALF_UP)
-                .doubleValue();
-    }
-
-    private double calculateEstimatedEnergy(Double sunshineDurationInSeconds) {
-        if (sunshineDurationInSeconds == null || sunshineDurationInSeconds <= 0) {
+    private double calculateEstimatedEnergy(double sunshineDurationInSeconds) {
+        if (Double.isNaN(sunshineDurationInSeconds) || sunshineDurationInSeconds <= 0) {
             return 0.0;
         }
 
@@ -80,21 +60,4 @@ public class WeatherDTOMapper {
 
         return PANEL_POWER_KW * exposureTimeHours * PANEL_EFFICIENCY;
     }
-
-    private String getMostFrequentWeatherCategory(List<WeatherDTO> weatherDataList) {
-        Map<String, Long> categoryFrequency = countWeatherCategoryFrequency(weatherDataList);
-
-        return categoryFrequency.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(String.valueOf(WeatherCategory.UNKNOWN));
-    }
-
-    private Map<String, Long> countWeatherCategoryFrequency(List<WeatherDTO> weatherDataList) {
-        return weatherDataList.stream()
-                .flatMap(dto -> dto.getWeatherCodes().stream())
-                .map(WeatherCode::getCategoryForCode)
-                .map(WeatherCategory::getDescription)
-                .collect(Collectors.groupingBy(category -> category, Collectors.counting()));
-    }
 }
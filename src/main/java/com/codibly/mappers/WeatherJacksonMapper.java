@@ -1,15 +1,18 @@
 package com.codibly.mappers;
 
 import com.codibly.dtos.WeatherDTO;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -30,74 +33,213 @@ public class WeatherJacksonMapper {
     private static final String PRESSURE_MSL_NODE = "pressure_msl";
     private static final String JSON_ERROR_MESSAGE = "Error parsing weather JSON";
     private static final int FIRST_ELEMENT = 0;
+    private static final int HOURS_IN_A_DAY = 24;
+    private static final int DAILY_ARRAY_CAPACITY = 7;
+    private static final int HOURLY_ARRAY_CAPACITY = DAILY_ARRAY_CAPACITY * HOURS_IN_A_DAY;
+    private static final int MISSING_WEATHER_CODE = -1;
     private final ObjectMapper objectMapper;
 
-    public WeatherDTO mapWeather(String weatherJson) {
-        try {
-            JsonNode rootNode = objectMapper.readTree(weatherJson);
-
-            Double latitude = rootNode.path(LATITUDE_NODE).asDouble();
-            Double longitude = rootNode.path(LONGITUDE_NODE).asDouble();
-
-            List<String> dateStrings = safeConvertList(
-                    rootNode.path(DAILY_NODE).path(TIME_NODE),
-                    new TypeReference<List<String>>() {
-                    }
-            );
-            LocalDate date = !dateStrings.isEmpty() ? LocalDate.parse(dateStrings.get(FIRST_ELEMENT)) : null;
-
-            List<Integer> weatherCodes = safeConvertList(
-                    rootNode.path(DAILY_NODE).path(WEATHER_CODE_NODE),
-                    new TypeReference<List<Integer>>() {
-                    }
-            );
-
-            List<Double> maxTemps = safeConvertList(
-                    rootNode.path(DAILY_NODE).path(TEMPERATURE_2M_MAX_NODE),
-                    new TypeReference<List<Double>>() {
-                    }
-            );
-            Double maxTemp = !maxTemps.isEmpty() ? maxTemps.get(FIRST_ELEMENT) : null;
-
-            List<Double> minTemps = safeConvertList(
-                    rootNode.path(DAILY_NODE).path(TEMPERATURE_2M_MIN_NODE),
-                    new TypeReference<List<Double>>() {
-                    }
-            );
-            Double minTemp = !minTemps.isEmpty() ? minTemps.get(FIRST_ELEMENT) : null;
-
-            List<Double> sunshineDurations = safeConvertList(
-                    rootNode.path(DAILY_NODE).path(SUNSHINE_DURATION_NODE),
-                    new TypeReference<List<Double>>() {
-                    }
-            );
-            Double sunshineDuration = !sunshineDurations.isEmpty() ? sunshineDurations.get(FIRST_ELEMENT) : null;
-
-            List<Double> pressures = safeConvertList(
-                    rootNode.path(HOURLY_NODE).path(PRESSURE_MSL_NODE),
-                    new TypeReference<List<Double>>() {
-                    }
-            );
-
-            return WeatherDTO.builder()
-                    .latitude(latitude)
-                    .longitude(longitude)
-                    .date(date)
-                    .weatherCodes(weatherCodes)
-                    .maxTemp(maxTemp)
-                    .minTemp(minTemp)
-                    .sunshineDuration(sunshineDuration)
-                    .dailyPressure(pressures)
-                    .build();
-
-        } catch (JsonProcessingException error) {
+    public WeatherDTO mapWeather(byte[] weatherJson) {
+        List<WeatherDTO> weatherDataList = mapWeatherRange(weatherJson);
+
+        return !weatherDataList.isEmpty() ? weatherDataList.get(FIRST_ELEMENT) : null;
+    }
+
+    public List<WeatherDTO> mapWeatherRange(byte[] weatherJson) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(weatherJson)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected forecast object");
+            }
+            return toWeatherDTOs(readForecast(parser));
+        } catch (IOException error) {
+            log.error(JSON_ERROR_MESSAGE, error);
+            return Collections.emptyList();
+        }
+    }
+
+    public List<List<WeatherDTO>> mapWeatherLocations(byte[] weatherJson) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(weatherJson)) {
+            JsonToken firstToken = parser.nextToken();
+
+            if (firstToken == JsonToken.START_OBJECT) {
+                return List.of(toWeatherDTOs(readForecast(parser)));
+            }
+            if (firstToken != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected forecast object or array of forecasts");
+            }
+
+            List<List<WeatherDTO>> locations = new ArrayList<>();
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                locations.add(toWeatherDTOs(readForecast(parser)));
+            }
+
+            return locations;
+        } catch (IOException error) {
             log.error(JSON_ERROR_MESSAGE, error);
-            return null;
+            return Collections.emptyList();
+        }
+    }
+
+    private ForecastArrays readForecast(JsonParser parser) throws IOException {
+        ForecastArrays forecast = new ForecastArrays();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+
+            switch (fieldName) {
+                case LATITUDE_NODE -> forecast.latitude = parser.getValueAsDouble();
+                case LONGITUDE_NODE -> forecast.longitude = parser.getValueAsDouble();
+                case DAILY_NODE -> readDaily(parser, forecast);
+                case HOURLY_NODE -> readHourly(parser, forecast);
+                default -> parser.skipChildren();
+            }
+        }
+
+        return forecast;
+    }
+
+    private void readDaily(JsonParser parser, ForecastArrays forecast) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+
+            switch (fieldName) {
+                case TIME_NODE -> forecast.dates = readDateArray(parser);
+                case WEATHER_CODE_NODE -> forecast.weatherCodes = readIntArray(parser);
+                case TEMPERATURE_2M_MAX_NODE -> forecast.maxTemps = readDoubleArray(parser, DAILY_ARRAY_CAPACITY);
+                case TEMPERATURE_2M_MIN_NODE -> forecast.minTemps = readDoubleArray(parser, DAILY_ARRAY_CAPACITY);
+                case SUNSHINE_DURATION_NODE ->
+                        forecast.sunshineDurations = readDoubleArray(parser, DAILY_ARRAY_CAPACITY);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void readHourly(JsonParser parser, ForecastArrays forecast) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+
+            if (PRESSURE_MSL_NODE.equals(fieldName)) {
+                forecast.pressures = readDoubleArray(parser, HOURLY_ARRAY_CAPACITY);
+            } else {
+                parser.skipChildren();
+            }
         }
     }
 
-    private <T> List<T> safeConvertList(JsonNode node, TypeReference<List<T>> typeRef) {
-        List<T> list = objectMapper.convertValue(node, typeRef);
-        return (list != null) ? list : Collections.emptyList();
+    private LocalDate[] readDateArray(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return new LocalDate[0];
+        }
+
+        List<LocalDate> dates = new ArrayList<>(DAILY_ARRAY_CAPACITY);
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            dates.add(parser.currentToken() == JsonToken.VALUE_NULL ? null : LocalDate.parse(parser.getText()));
+        }
+
+        return dates.toArray(LocalDate[]::new);
+    }
+
+    private int[] readIntArray(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return new int[0];
+        }
+
+        int[] values = new int[DAILY_ARRAY_CAPACITY];
+        int size = 0;
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = parser.currentToken() == JsonToken.VALUE_NULL
+                    ? MISSING_WEATHER_CODE
+                    : parser.getValueAsInt();
+        }
+
+        return Arrays.copyOf(values, size);
+    }
+
+    private double[] readDoubleArray(JsonParser parser, int initialCapacity) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return new double[0];
+        }
+
+        double[] values = new double[initialCapacity];
+        int size = 0;
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = parser.currentToken() == JsonToken.VALUE_NULL ? Double.NaN : parser.getValueAsDouble();
+        }
+
+        return Arrays.copyOf(values, size);
+    }
+
+    private List<WeatherDTO> toWeatherDTOs(ForecastArrays forecast) {
+        List<WeatherDTO> weatherDataList = new ArrayList<>(forecast.dates.length);
+
+        for (int day = 0; day < forecast.dates.length; day++) {
+            if (forecast.dates[day] == null) {
+                continue;
+            }
+
+            int weatherCode = day < forecast.weatherCodes.length ? forecast.weatherCodes[day] : MISSING_WEATHER_CODE;
+
+            weatherDataList.add(WeatherDTO.builder()
+                    .latitude(forecast.latitude)
+                    .longitude(forecast.longitude)
+                    .date(forecast.dates[day])
+                    .weatherCodes(weatherCode != MISSING_WEATHER_CODE ? new int[]{weatherCode} : new int[0])
+                    .maxTemp(elementOrNaN(forecast.maxTemps, day))
+                    .minTemp(elementOrNaN(forecast.minTemps, day))
+                    .sunshineDuration(elementOrNaN(forecast.sunshineDurations, day))
+                    .dailyPressure(hourlySliceForDay(forecast.pressures, day))
+                    .build());
+        }
+
+        return weatherDataList;
+    }
+
+    private double elementOrNaN(double[] values, int index) {
+        return index < values.length ? values[index] : Double.NaN;
+    }
+
+    private double[] hourlySliceForDay(double[] hourlyValues, int day) {
+        int fromIndex = Math.min(day * HOURS_IN_A_DAY, hourlyValues.length);
+        int toIndex = Math.min(fromIndex + HOURS_IN_A_DAY, hourlyValues.length);
+
+        return Arrays.copyOfRange(hourlyValues, fromIndex, toIndex);
+    }
+
+    private static final class ForecastArrays {
+
+        private double latitude;
+        private double longitude;
+        private LocalDate[] dates = new LocalDate[0];
+        private int[] weatherCodes = new int[0];
+        private double[] maxTemps = new double[0];
+        private double[] minTemps = new double[0];
+        private double[] sunshineDurations = new double[0];
+        private double[] pressures = new double[0];
     }
 }
@@ -0,0 +1,91 @@
+package com.codibly.mappers;
+
+import com.codibly.dtos.WeatherDTO;
+import com.codibly.enums.WeatherCategory;
+import com.codibly.enums.WeatherCode;
+
+import java.util.Optional;
+
+public class WeatherSummaryStatistics {
+
+    private static final WeatherCategory[] WEATHER_CATEGORIES = WeatherCategory.values();
+    private static final double NO_DATA = 0.0;
+
+    private final int[] categoryFrequency = new int[WEATHER_CATEGORIES.length];
+    private double pressureSum;
+    private long pressureCount;
+    private double sunshineDurationSum;
+    private long dayCount;
+    private double lowestTemperature = Double.POSITIVE_INFINITY;
+    private double highestTemperature = Double.NEGATIVE_INFINITY;
+
+    public void accept(WeatherDTO weatherDTO) {
+        for (double pressure : weatherDTO.getDailyPressure()) {
+            if (!Double.isNaN(pressure)) {
+                pressureSum += pressure;
+                pressureCount++;
+            }
+        }
+
+        if (!Double.isNaN(weatherDTO.getSunshineDuration())) {
+            sunshineDurationSum += weatherDTO.getSunshineDuration();
+        }
+        dayCount++;
+
+        if (weatherDTO.getMinTemp() < lowestTemperature) {
+            lowestTemperature = weatherDTO.getMinTemp();
+        }
+        if (weatherDTO.getMaxTemp() > highestTemperature) {
+            highestTemperature = weatherDTO.getMaxTemp();
+        }
+
+        for (int weatherCode : weatherDTO.getWeatherCodes()) {
+            categoryFrequency[WeatherCode.getCategoryForCode(weatherCode).ordinal()]++;
+        }
+    }
+
+    public WeatherSummaryStatistics combine(WeatherSummaryStatistics other) {
+        pressureSum += other.pressureSum;
+        pressureCount += other.pressureCount;
+        sunshineDurationSum += other.sunshineDurationSum;
+        dayCount += other.dayCount;
+        lowestTemperature = Math.min(lowestTemperature, other.lowestTemperature);
+        highestTemperature = Math.max(highestTemperature, other.highestTemperature);
+
+        for (int ordinal = 0; ordinal < categoryFrequency.length; ordinal++) {
+            categoryFrequency[ordinal] += other.categoryFrequency[ordinal];
+        }
+
+        return this;
+    }
+
+    public double getAveragePressure() {
+        return pressureCount > 0 ? pressureSum / pressureCount : NO_DATA;
+    }
+
+    public double getAverageSunshineDuration() {
+        return dayCount > 0 ? sunshineDurationSum / dayCount : NO_DATA;
+    }
+
+    public double getLowestTemperature() {
+        return lowestTemperature != Double.POSITIVE_INFINITY ? lowestTemperature : NO_DATA;
+    }
+
+    public double getHighestTemperature() {
+        return highestTemperature != Double.NEGATIVE_INFINITY ? highestTemperature : NO_DATA;
+    }
+
+    public Optional<WeatherCategory> getMostFrequentCategory() {
+        WeatherCategory mostFrequentCategory = null;
+        int highestFrequency = 0;
+
+        for (int ordinal = 0; ordinal < categoryFrequency.length; ordinal++) {
+            if (categoryFrequency[ordinal] > highestFrequency) {
+                highestFrequency = categoryFrequency[ordinal];
+                mostFrequentCategory = WEATHER_CATEGORIES[ordinal];
+            }
+        }
+
+        return Optional.ofNullable(mostFrequentCategory);
+    }
+}
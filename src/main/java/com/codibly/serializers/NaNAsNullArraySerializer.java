@@ -0,0 +1,27 @@
+package com.codibly.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+public class NaNAsNullArraySerializer extends StdSerializer<double[]> {
+
+    public NaNAsNullArraySerializer() {
+        super(double[].class);
+    }
+
+    @Override
+    public void serialize(double[] values, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartArray(values, values.length);
+        for (double value : values) {
+            if (Double.isNaN(value)) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(value);
+            }
+        }
+        generator.writeEndArray();
+    }
+}
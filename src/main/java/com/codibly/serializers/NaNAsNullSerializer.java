@@ -0,0 +1,23 @@
+package com.codibly.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+public class NaNAsNullSerializer extends StdSerializer<Double> {
+
+    public NaNAsNullSerializer() {
+        super(Double.class);
+    }
+
+    @Override
+    public void serialize(Double value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (value == null || value.isNaN()) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.codibly.services;
+
+import com.codibly.config.CacheProperties;
+import com.codibly.config.GridProperties;
+import com.codibly.dtos.LocationDTO;
+import com.codibly.dtos.WeatherDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@RequiredArgsConstructor
+@Component
+public class CoordinateResolver {
+
+    private static final double MAX_LATITUDE = 90.0;
+    private static final double MAX_LONGITUDE = 180.0;
+    private static final double COORDINATE_SCALE = 1_000_000.0;
+    private static final int CELL_BITS = 32;
+    private static final long CELL_MASK = 0xFFFFFFFFL;
+
+    private final GridProperties gridProperties;
+    // the cache's grid, so a resolved point always falls into the cache cell it was snapped to
+    private final CacheProperties cacheProperties;
+    private final Map<Long, ModelPoint> modelPointsByCell = new ConcurrentHashMap<>();
+
+    public LocationDTO resolve(double latitude, double longitude) {
+        if (!gridProperties.isEnabled()) {
+            return new LocationDTO(latitude, longitude);
+        }
+
+        ModelPoint modelPoint = gridProperties.isUseModelCoordinates()
+                ? modelPointsByCell.get(cellOf(latitude, longitude))
+                : null;
+
+        if (modelPoint != null) {
+            return new LocationDTO(modelPoint.latitude(), modelPoint.longitude());
+        }
+
+        return new LocationDTO(snap(latitude, MAX_LATITUDE), snap(longitude, MAX_LONGITUDE));
+    }
+
+    public Optional<LocationDTO> learn(double latitude, double longitude, List<WeatherDTO> weatherDataList) {
+        if (!gridProperties.isEnabled() || !gridProperties.isUseModelCoordinates() || weatherDataList.isEmpty()) {
+            return Optional.empty();
+        }
+
+        WeatherDTO echoed = weatherDataList.get(0);
+
+        if (Double.isNaN(echoed.getLatitude()) || Double.isNaN(echoed.getLongitude())) {
+            return Optional.empty();
+        }
+
+        ModelPoint modelPoint = new ModelPoint(echoed.getLatitude(), echoed.getLongitude());
+        long cell = cellOf(latitude, longitude);
+
+        if (!modelPointsByCell.containsKey(cell) && modelPointsByCell.size() >= gridProperties.getMaxLearnedCells()) {
+            return Optional.empty();
+        }
+
+        ModelPoint previous = modelPointsByCell.put(cell, modelPoint);
+        modelPointsByCell.putIfAbsent(cellOf(modelPoint.latitude(), modelPoint.longitude()), modelPoint);
+
+        return modelPoint.equals(previous)
+                ? Optional.empty()
+                : Optional.of(new LocationDTO(modelPoint.latitude(), modelPoint.longitude()));
+    }
+
+    public int learnedCells() {
+        return modelPointsByCell.size();
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        long latitudeCell = Math.round(latitude / cacheProperties.getGridSizeDegrees());
+        long longitudeCell = Math.round(longitude / cacheProperties.getGridSizeDegrees());
+
+        return (latitudeCell << CELL_BITS) | (longitudeCell & CELL_MASK);
+    }
+
+    private double snap(double coordinate, double limit) {
+        double cellSize = cacheProperties.getGridSizeDegrees();
+        double snapped = Math.round(Math.round(coordinate / cellSize) * cellSize * COORDINATE_SCALE) / COORDINATE_SCALE;
+
+        return Math.max(-limit, Math.min(limit, snapped));
+    }
+
+    private record ModelPoint(double latitude, double longitude) {
+    }
+}
@@ -1,44 +1,356 @@
 package com.codibly.services;
 
+import com.codibly.cache.ForecastCache;
+import com.codibly.cache.HotLocation;
+import com.codibly.config.CacheProperties;
+import com.codibly.config.UpstreamProperties;
+import com.codibly.connectivity.LocationChunk;
+import com.codibly.connectivity.LocationFetchResult;
 import com.codibly.connectivity.WeatherAPIHandler;
+import com.codibly.dtos.LocationDTO;
+import com.codibly.dtos.LocationForecastDTO;
+import com.codibly.dtos.LocationSummaryDTO;
 import com.codibly.dtos.WeatherDTO;
 import com.codibly.dtos.WeatherForecastDTO;
 import com.codibly.dtos.WeatherSummaryDTO;
+import com.codibly.enums.FetchMode;
+import com.codibly.enums.RequestPriority;
 import com.codibly.mappers.WeatherDTOMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class WeatherService {
 
     private static final int FORECAST_DURATION_DAYS = 7;
     private static final int FORECAST_DURATION_WITHOUT_TODAY = FORECAST_DURATION_DAYS - 1;
+    private static final String REQUESTS_METRIC = "weather.service.requests";
+    private static final String MAPPING_METRIC = "weather.service.mapping";
+    private static final String MISSING_DAYS_METRIC = "weather.service.missing.days";
+    private static final String OPERATION_TAG = "operation";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final String FORECAST = "forecast";
+    private static final String SUMMARY = "summary";
+    private static final String FORECASTS = "forecasts";
+    private static final String SUMMARIES = "summaries";
     private final WeatherAPIHandler weatherAPIHandler;
     private final WeatherDTOMapper weatherDTOMapper;
+    private final ForecastCache forecastCache;
+    private final UpstreamProperties upstreamProperties;
+    private final CoordinateResolver coordinateResolver;
+    private final CacheProperties cacheProperties;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
 
-    public List<WeatherForecastDTO> getWeeklyForecast(Double latitude, Double longitude) {
+    public CompletableFuture<List<WeatherForecastDTO>> getWeeklyForecast(Double latitude, Double longitude) {
+        return observed(FORECAST, observation -> fetchWeeklyWeather(latitude, longitude)
+                .thenApply(weatherDataList -> mapped(observation, FORECAST, () -> weatherDataList.stream()
+                        .map(weatherDTOMapper::toForecastDTO)
+                        .toList())));
+    }
+
+    public CompletableFuture<WeatherSummaryDTO> getWeeklySummary(Double latitude, Double longitude) {
+        return observed(SUMMARY, observation -> fetchWeeklyWeather(latitude, longitude)
+                .thenApply(weatherDataList -> mapped(observation, SUMMARY,
+                        () -> weatherDTOMapper.toSummaryDTO(weatherDataList))));
+    }
+
+    public CompletableFuture<List<LocationForecastDTO>> getWeeklyForecasts(List<LocationDTO> locations) {
+        return observed(FORECASTS, observation -> inRequestOrder(locations, fetchWeeklyWeatherInChunks(locations))
+                .thenApply(fetchResults -> mapped(observation, FORECASTS, () -> fetchResults.stream()
+                        .map(this::toLocationForecastDTO)
+                        .toList())));
+    }
+
+    public CompletableFuture<List<LocationSummaryDTO>> getWeeklySummaries(List<LocationDTO> locations) {
+        return observed(SUMMARIES, observation -> inRequestOrder(locations, fetchWeeklyWeatherInChunks(locations))
+                .thenApply(fetchResults -> mapped(observation, SUMMARIES, () -> fetchResults.stream()
+                        .map(this::toLocationSummaryDTO)
+                        .toList())));
+    }
+
+    public List<LocationChunk<LocationForecastDTO>> getWeeklyForecastChunks(List<LocationDTO> locations) {
+        return observedChunks(FORECASTS, observation -> fetchWeeklyWeatherInChunks(locations).stream()
+                .map(chunk -> new LocationChunk<>(chunk.locations(), chunk.result().thenApply(fetchResults ->
+                        mapped(observation, FORECASTS, () -> fetchResults.stream()
+                                .map(this::toLocationForecastDTO)
+                                .toList()))))
+                .toList());
+    }
+
+    public List<LocationChunk<LocationSummaryDTO>> getWeeklySummaryChunks(List<LocationDTO> locations) {
+        return observedChunks(SUMMARIES, observation -> fetchWeeklyWeatherInChunks(locations).stream()
+                .map(chunk -> new LocationChunk<>(chunk.locations(), chunk.result().thenApply(fetchResults ->
+                        mapped(observation, SUMMARIES, () -> fetchResults.stream()
+                                .map(this::toLocationSummaryDTO)
+                                .toList()))))
+                .toList());
+    }
+
+    public Duration weeklyForecastFreshness(Double latitude, Double longitude) {
+        LocalDate today = LocalDate.now();
+        LocationDTO resolved = coordinateResolver.resolve(latitude, longitude);
+
+        return forecastCache.remainingFreshness(resolved.getLatitude(), resolved.getLongitude(), today,
+                today.plusDays(FORECAST_DURATION_WITHOUT_TODAY));
+    }
+
+    @Scheduled(fixedDelayString = "${weather.cache.refresh.interval:PT1M}",
+            initialDelayString = "${weather.cache.refresh.interval:PT1M}")
+    public void refreshHotLocations() {
+        CacheProperties.Refresh refresh = cacheProperties.getRefresh();
+
+        if (!cacheProperties.isEnabled() || !refresh.isEnabled()) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate endDate = today.plusDays(FORECAST_DURATION_WITHOUT_TODAY);
+        int refreshed = 0;
+
+        for (HotLocation hotLocation : forecastCache.hotLocations(refresh.getTopLocations())) {
+            double latitude = hotLocation.latitude();
+            double longitude = hotLocation.longitude();
+
+            if (forecastCache.needsRefresh(latitude, longitude, today, endDate, refresh.getAheadOfExpiry())) {
+                fetchFromUpstream(latitude, longitude, today, endDate, RequestPriority.BATCH)
+                        .thenAccept(weatherDataList -> forecastCache.putAll(latitude, longitude, weatherDataList))
+                        .exceptionally(error -> {
+                            log.warn("Refresh failed for latitude: {}, longitude: {}", latitude, longitude, error);
+                            return null;
+                        });
+                refreshed++;
+            }
+        }
+
+        if (refreshed > 0) {
+            log.debug("Refreshing {} hot locations ahead of expiry", refreshed);
+        }
+    }
+
+    private <T> CompletableFuture<T> observed(String operation,
+                                              Function<Observation, CompletableFuture<T>> request) {
+        Observation observation = startObservation(operation);
+        CompletableFuture<T> result = inScope(observation, request);
+
+        return result.whenComplete((value, error) -> stop(observation, error));
+    }
+
+    private <T> List<LocationChunk<T>> observedChunks(String operation,
+                                                      Function<Observation, List<LocationChunk<T>>> request) {
+        Observation observation = startObservation(operation);
+        List<LocationChunk<T>> chunks = inScope(observation, request);
+
+        CompletableFuture.allOf(chunks.stream().map(LocationChunk::result).toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, error) -> stop(observation, error));
+
+        return chunks;
+    }
+
+    private Observation startObservation(String operation) {
+        return Observation.createNotStarted(REQUESTS_METRIC, observationRegistry)
+                .lowCardinalityKeyValue(OPERATION_TAG, operation)
+                .start();
+    }
+
+    private <T> T inScope(Observation observation, Function<Observation, T> request) {
+        // cache lookups and upstream fetches start synchronously, so they pick this observation up as their parent
+        try (Observation.Scope scope = observation.openScope()) {
+            return request.apply(observation);
+        } catch (RuntimeException error) {
+            stop(observation, error);
+            throw error;
+        }
+    }
+
+    private void stop(Observation observation, Throwable error) {
+        observation.lowCardinalityKeyValue(OUTCOME_TAG, error == null ? "SUCCESS" : "ERROR");
+        if (error != null) {
+            observation.error(error);
+        }
+        observation.stop();
+    }
+
+    private <T> T mapped(Observation parent, String operation, Supplier<T> mapping) {
+        return Observation.createNotStarted(MAPPING_METRIC, observationRegistry)
+                .parentObservation(parent)
+                .lowCardinalityKeyValue(OPERATION_TAG, operation)
+                .observe(mapping);
+    }
+
+    private List<LocationChunk<LocationFetchResult>> fetchWeeklyWeatherInChunks(List<LocationDTO> locations) {
         LocalDate today = LocalDate.now();
         LocalDate endDate = today.plusDays(FORECAST_DURATION_WITHOUT_TODAY);
+        Map<LocationDTO, List<LocationDTO>> requestedByResolved = new LinkedHashMap<>();
+        List<LocationFetchResult> cachedResults = new ArrayList<>();
+        List<LocationDTO> uncachedLocations = new ArrayList<>();
+
+        for (LocationDTO location : new LinkedHashSet<>(locations)) {
+            requestedByResolved.computeIfAbsent(
+                    coordinateResolver.resolve(location.getLatitude(), location.getLongitude()),
+                    resolved -> new ArrayList<>()).add(location);
+        }
+
+        for (LocationDTO resolved : requestedByResolved.keySet()) {
+            forecastCache.getCompleteRange(resolved.getLatitude(), resolved.getLongitude(), today, endDate)
+                    .ifPresentOrElse(cachedWeek -> cachedResults.add(new LocationFetchResult(resolved, cachedWeek)),
+                            () -> uncachedLocations.add(resolved));
+        }
+
+        List<LocationChunk<LocationFetchResult>> chunks = new ArrayList<>();
 
-        List<WeatherDTO> weatherDataList = weatherAPIHandler.fetchWeatherForDateRange(
-                latitude, longitude, today, endDate);
+        if (!cachedResults.isEmpty()) {
+            List<LocationFetchResult> requestedResults = toRequestedLocations(cachedResults, requestedByResolved);
+            chunks.add(new LocationChunk<>(requestedResults.stream().map(LocationFetchResult::location).toList(),
+                    CompletableFuture.completedFuture(requestedResults)));
+        }
 
-        return weatherDataList.stream()
-                .map(weatherDTOMapper::toForecastDTO)
+        weatherAPIHandler.fetchWeatherForLocationChunksAsync(uncachedLocations, today, endDate)
+                .forEach(chunkFetch -> chunks.add(toRequestedChunk(chunkFetch, requestedByResolved, today, endDate)));
+
+        return chunks;
+    }
+
+    private LocationChunk<LocationFetchResult> toRequestedChunk(LocationChunk<LocationFetchResult> chunkFetch,
+                                                                Map<LocationDTO, List<LocationDTO>> requestedByResolved,
+                                                                LocalDate today, LocalDate endDate) {
+        List<LocationDTO> requestedLocations = chunkFetch.locations().stream()
+                .flatMap(resolved -> requestedByResolved.get(resolved).stream())
+                .toList();
+
+        return new LocationChunk<>(requestedLocations, chunkFetch.result().thenApply(fetchResults -> {
+            fetchResults.forEach(fetchResult -> {
+                LocationDTO resolved = fetchResult.location();
+                forecastCache.putAll(resolved.getLatitude(), resolved.getLongitude(), fetchResult.weatherData());
+                requestedByResolved.get(resolved).forEach(requested -> learnModelPoint(
+                        requested.getLatitude(), requested.getLongitude(), fetchResult.weatherData()));
+            });
+            return toRequestedLocations(fetchResults.stream()
+                    .map(fetchResult -> new LocationFetchResult(fetchResult.location(), withLastKnownGood(
+                            fetchResult.location().getLatitude(), fetchResult.location().getLongitude(),
+                            today, endDate, fetchResult.weatherData())))
+                    .toList(), requestedByResolved);
+        }));
+    }
+
+    private List<LocationFetchResult> toRequestedLocations(List<LocationFetchResult> resolvedResults,
+                                                           Map<LocationDTO, List<LocationDTO>> requestedByResolved) {
+        return resolvedResults.stream()
+                .flatMap(resolvedResult -> requestedByResolved.get(resolvedResult.location()).stream()
+                        .map(requested -> new LocationFetchResult(requested, resolvedResult.weatherData())))
                 .toList();
     }
 
-    public WeatherSummaryDTO getWeeklySummary(Double latitude, Double longitude) {
+    private CompletableFuture<List<LocationFetchResult>> inRequestOrder(
+            List<LocationDTO> locations, List<LocationChunk<LocationFetchResult>> chunks) {
+        Map<LocationDTO, Integer> requestOrder = new HashMap<>();
+
+        for (LocationDTO location : locations) {
+            requestOrder.putIfAbsent(location, requestOrder.size());
+        }
+
+        return CompletableFuture.allOf(chunks.stream().map(LocationChunk::result).toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> chunks.stream()
+                        .flatMap(chunk -> chunk.result().join().stream())
+                        .sorted(Comparator.comparing(fetchResult -> requestOrder.get(fetchResult.location())))
+                        .toList());
+    }
+
+    private LocationForecastDTO toLocationForecastDTO(LocationFetchResult fetchResult) {
+        return LocationForecastDTO.builder()
+                .latitude(fetchResult.location().getLatitude())
+                .longitude(fetchResult.location().getLongitude())
+                .forecast(fetchResult.weatherData().stream().map(weatherDTOMapper::toForecastDTO).toList())
+                .build();
+    }
+
+    private LocationSummaryDTO toLocationSummaryDTO(LocationFetchResult fetchResult) {
+        return LocationSummaryDTO.builder()
+                .latitude(fetchResult.location().getLatitude())
+                .longitude(fetchResult.location().getLongitude())
+                .summary(weatherDTOMapper.toSummaryDTO(fetchResult.weatherData()))
+                .build();
+    }
+
+    private CompletableFuture<List<WeatherDTO>> fetchWeeklyWeather(Double latitude, Double longitude) {
         LocalDate today = LocalDate.now();
         LocalDate endDate = today.plusDays(FORECAST_DURATION_WITHOUT_TODAY);
+        LocationDTO resolved = coordinateResolver.resolve(latitude, longitude);
+
+        CompletableFuture<List<WeatherDTO>> weeklyWeather = forecastCache.getRange(resolved.getLatitude(),
+                resolved.getLongitude(), today, endDate,
+                (startDate, lastDate) -> fetchFromUpstream(resolved.getLatitude(), resolved.getLongitude(),
+                        startDate, lastDate, RequestPriority.INTERACTIVE).thenApply(weatherDataList -> {
+                            learnModelPoint(latitude, longitude, weatherDataList);
+                            return weatherDataList;
+                        }));
+
+        return weeklyWeather.thenApply(weatherDataList -> withLastKnownGood(resolved.getLatitude(),
+                resolved.getLongitude(), today, endDate, weatherDataList));
+    }
+
+    private List<WeatherDTO> withLastKnownGood(double latitude, double longitude, LocalDate startDate,
+                                               LocalDate endDate, List<WeatherDTO> weatherDataList) {
+        if (weatherDataList.size() > ChronoUnit.DAYS.between(startDate, endDate)) {
+            return weatherDataList;
+        }
+
+        // applied after caching, so an old fallback forecast is never stored as a fresh one
+        Map<LocalDate, WeatherDTO> daysByDate = new TreeMap<>();
+        weatherAPIHandler.lastKnownGood(latitude, longitude, startDate, endDate)
+                .forEach(weatherDTO -> daysByDate.put(weatherDTO.getDate(), weatherDTO));
+        weatherDataList.forEach(weatherDTO -> daysByDate.put(weatherDTO.getDate(), weatherDTO));
+
+        long missingDays = ChronoUnit.DAYS.between(startDate, endDate) + 1 - daysByDate.size();
+        if (missingDays > 0) {
+            meterRegistry.counter(MISSING_DAYS_METRIC).increment(missingDays);
+        }
+
+        return new ArrayList<>(daysByDate.values());
+    }
+
+    private void learnModelPoint(double latitude, double longitude, List<WeatherDTO> weatherDataList) {
+        coordinateResolver.learn(latitude, longitude, weatherDataList).ifPresent(modelPoint ->
+                forecastCache.putAll(modelPoint.getLatitude(), modelPoint.getLongitude(), weatherDataList));
+    }
 
-        List<WeatherDTO> weatherDataList = weatherAPIHandler.fetchWeatherForDateRange(
-                latitude, longitude, today, endDate);
+    private CompletableFuture<List<WeatherDTO>> fetchFromUpstream(Double latitude, Double longitude,
+                                                                 LocalDate startDate, LocalDate endDate,
+                                                                 RequestPriority priority) {
+        if (upstreamProperties.getFetchMode() == FetchMode.RANGE) {
+            return weatherAPIHandler.fetchWeatherForDateRangeAsync(latitude, longitude, startDate, endDate,
+                    priority);
+        }
 
-        return weatherDTOMapper.toSummaryDTO(weatherDataList);
+        return weatherAPIHandler.fetchWeatherPerDayAsync(latitude, longitude, startDate, endDate)
+                .thenApply(fetchResult -> {
+                    if (!fetchResult.isComplete()) {
+                        log.warn("Missing forecast days for latitude: {}, longitude: {}: {}",
+                                latitude, longitude, fetchResult.failedDates());
+                    }
+                    return fetchResult.weatherData();
+                });
     }
 }
@@ -0,0 +1,274 @@
+package com.codibly.cache;
+
+import com.codibly.config.CacheProperties;
+import com.codibly.config.StoreProperties;
+import com.codibly.dtos.WeatherDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForecastCacheTest {
+
+    private static final double LATITUDE = 50.04968;
+    private static final double LONGITUDE = 19.944544;
+    private static final double NEARBY_LATITUDE = 50.0511;
+    private static final double DISTANT_LATITUDE = 50.2;
+    private static final Instant NOW = Instant.parse("2024-12-30T10:00:00Z");
+    private static final LocalDate TODAY = LocalDate.parse("2024-12-30");
+    private static final LocalDate TOMORROW = TODAY.plusDays(1);
+    private static final Duration TTL = Duration.ofHours(1);
+    private static final Duration TODAY_TTL = Duration.ofMinutes(15);
+    private static final Duration STALE_WHILE_REVALIDATE = Duration.ofMinutes(30);
+    private static final Duration AHEAD_OF_EXPIRY = Duration.ofMinutes(5);
+    private static final int MAX_ENTRIES = 3;
+    private static final int FORECAST_DAYS = 3;
+
+    private MutableClock clock;
+    private ForecastCache forecastCache;
+
+    @BeforeEach
+    void setUp() {
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.setTtl(TTL);
+        cacheProperties.setTodayTtl(TODAY_TTL);
+        cacheProperties.setMaxEntries(MAX_ENTRIES);
+        cacheProperties.setStaleWhileRevalidate(STALE_WHILE_REVALIDATE);
+
+        clock = new MutableClock(NOW);
+        forecastCache = new ForecastCache(cacheProperties, new ForecastStore(new StoreProperties(), cacheProperties),
+                clock);
+    }
+
+    @Test
+    void getShouldReturnCachedEntryForCoordinatesInTheSameGridCell() {
+        //given
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+
+        //when/then
+        assertTrue(forecastCache.get(NEARBY_LATITUDE, LONGITUDE, TOMORROW).isPresent());
+        assertFalse(forecastCache.get(DISTANT_LATITUDE, LONGITUDE, TOMORROW).isPresent());
+
+        ForecastCacheStats stats = forecastCache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void todayEntryShouldExpireBeforeFutureDays() {
+        //given
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TODAY));
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+
+        //when
+        clock.advance(TODAY_TTL);
+
+        //then
+        assertFalse(forecastCache.get(LATITUDE, LONGITUDE, TODAY).isPresent());
+        assertTrue(forecastCache.get(LATITUDE, LONGITUDE, TOMORROW).isPresent());
+
+        clock.advance(TTL);
+        assertFalse(forecastCache.get(LATITUDE, LONGITUDE, TOMORROW).isPresent());
+    }
+
+    @Test
+    void putShouldEvictLeastRecentlyUsedEntryWhenFull() {
+        //given
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TODAY));
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TOMORROW.plusDays(1)));
+        forecastCache.get(LATITUDE, LONGITUDE, TODAY);
+
+        //when
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TOMORROW.plusDays(2)));
+
+        //then
+        assertTrue(forecastCache.get(LATITUDE, LONGITUDE, TODAY).isPresent());
+        assertFalse(forecastCache.get(LATITUDE, LONGITUDE, TOMORROW).isPresent());
+        assertEquals(1, forecastCache.stats().evictions());
+        assertEquals(MAX_ENTRIES, forecastCache.stats().size());
+    }
+
+    @Test
+    void getRangeShouldLoadOnlyMissingDaysAndKeepDateOrder() {
+        //given
+        LocalDate endDate = TODAY.plusDays(FORECAST_DAYS - 1);
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TODAY));
+        List<LocalDate> requestedStartDates = new ArrayList<>();
+
+        //when
+        List<WeatherDTO> result = forecastCache.getRange(LATITUDE, LONGITUDE, TODAY, endDate,
+                (startDate, lastDate) -> {
+                    requestedStartDates.add(startDate);
+                    return CompletableFuture.completedFuture(List.of(weatherFor(startDate), weatherFor(lastDate)));
+                }).join();
+
+        //then
+        assertEquals(List.of(TOMORROW), requestedStartDates);
+        assertEquals(List.of(TODAY, TOMORROW, endDate), result.stream().map(WeatherDTO::getDate).toList());
+    }
+
+    @Test
+    void getRangeShouldNotCallLoaderWhenAllDaysAreCached() {
+        //given
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TODAY));
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+
+        //when
+        List<WeatherDTO> result = forecastCache.getRange(LATITUDE, LONGITUDE, TODAY, TOMORROW,
+                (startDate, lastDate) -> {
+                    throw new AssertionError("Loader should not be called");
+                }).join();
+
+        //then
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void getRangeShouldServeStaleDaysWhileOneBackgroundRefreshRuns() {
+        //given
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+        clock.advance(TTL);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CompletableFuture<List<WeatherDTO>> refresh = new CompletableFuture<>();
+
+        //when
+        List<WeatherDTO> firstResult = forecastCache.getRange(LATITUDE, LONGITUDE, TOMORROW, TOMORROW,
+                (startDate, lastDate) -> {
+                    loaderCalls.incrementAndGet();
+                    return refresh;
+                }).join();
+        List<WeatherDTO> secondResult = forecastCache.getRange(LATITUDE, LONGITUDE, TOMORROW, TOMORROW,
+                (startDate, lastDate) -> {
+                    loaderCalls.incrementAndGet();
+                    return refresh;
+                }).join();
+
+        //then
+        assertEquals(1, firstResult.size());
+        assertEquals(1, secondResult.size());
+        assertEquals(1, loaderCalls.get());
+        assertFalse(forecastCache.get(LATITUDE, LONGITUDE, TOMORROW).isPresent());
+
+        refresh.complete(List.of(weatherFor(TOMORROW)));
+        assertTrue(forecastCache.get(LATITUDE, LONGITUDE, TOMORROW).isPresent());
+
+        ForecastCacheStats stats = forecastCache.stats();
+        assertEquals(2, stats.staleHits());
+        assertEquals(1, stats.revalidations());
+    }
+
+    @Test
+    void getRangeShouldNotServeDaysPastTheStaleWindow() {
+        //given
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+        clock.advance(TTL.plus(STALE_WHILE_REVALIDATE));
+        List<LocalDate> requestedStartDates = new ArrayList<>();
+
+        //when
+        forecastCache.getRange(LATITUDE, LONGITUDE, TOMORROW, TOMORROW, (startDate, lastDate) -> {
+            requestedStartDates.add(startDate);
+            return CompletableFuture.completedFuture(List.of(weatherFor(startDate)));
+        }).join();
+
+        //then
+        assertEquals(List.of(TOMORROW), requestedStartDates);
+        assertEquals(0, forecastCache.stats().staleHits());
+    }
+
+    @Test
+    void hotLocationsShouldRankCellsByAccessFrequencyAndFlagExpiringOnes() {
+        //given
+        RangeLoaderStub loader = new RangeLoaderStub();
+        forecastCache.getRange(DISTANT_LATITUDE, LONGITUDE, TOMORROW, TOMORROW, loader).join();
+        forecastCache.getRange(LATITUDE, LONGITUDE, TOMORROW, TOMORROW, loader).join();
+        forecastCache.getRange(NEARBY_LATITUDE, LONGITUDE, TOMORROW, TOMORROW, loader).join();
+
+        //when
+        List<HotLocation> hotLocations = forecastCache.hotLocations(1);
+
+        //then
+        assertEquals(1, hotLocations.size());
+        assertEquals(LATITUDE, hotLocations.get(0).latitude());
+        assertFalse(forecastCache.needsRefresh(LATITUDE, LONGITUDE, TOMORROW, TOMORROW, AHEAD_OF_EXPIRY));
+
+        clock.advance(TTL.minus(AHEAD_OF_EXPIRY));
+        assertTrue(forecastCache.needsRefresh(LATITUDE, LONGITUDE, TOMORROW, TOMORROW, AHEAD_OF_EXPIRY));
+    }
+
+    @Test
+    void remainingFreshnessShouldFollowTheEarliestExpiringDay() {
+        //given
+        final Duration elapsed = Duration.ofMinutes(5);
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TODAY));
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+
+        //when
+        clock.advance(elapsed);
+
+        //then
+        assertEquals(TODAY_TTL.minus(elapsed), forecastCache.remainingFreshness(LATITUDE, LONGITUDE, TODAY, TOMORROW));
+        assertEquals(Duration.ZERO,
+                forecastCache.remainingFreshness(LATITUDE, LONGITUDE, TODAY, TOMORROW.plusDays(1)));
+
+        clock.advance(TODAY_TTL);
+        assertEquals(Duration.ZERO, forecastCache.remainingFreshness(LATITUDE, LONGITUDE, TODAY, TOMORROW));
+    }
+
+    private WeatherDTO weatherFor(LocalDate date) {
+        return WeatherDTO.builder()
+                .latitude(LATITUDE)
+                .longitude(LONGITUDE)
+                .date(date)
+                .build();
+    }
+
+    private final class RangeLoaderStub implements ForecastCache.RangeLoader {
+
+        @Override
+        public CompletableFuture<List<WeatherDTO>> load(LocalDate startDate, LocalDate endDate) {
+            return CompletableFuture.completedFuture(List.of(weatherFor(startDate)));
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.codibly.cache;
+
+import com.codibly.config.CacheProperties;
+import com.codibly.config.StoreProperties;
+import com.codibly.dtos.WeatherDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForecastStoreTest {
+
+    private static final String STORE_FILE = "forecast-store.bin";
+    private static final double LATITUDE = 50.04968;
+    private static final double LONGITUDE = 19.944544;
+    private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
+    private static final double MAX_TEMP = -1.5;
+    private static final int[] WEATHER_CODES = {71};
+    private static final double[] DAILY_PRESSURE = {1012.4, Double.NaN, 1013.1};
+    private static final Duration TTL = Duration.ofHours(1);
+    private static final int TRUNCATED_BYTES = 5;
+    private static final byte[] UNKNOWN_FORMAT_PAYLOAD = {99};
+    private static final byte PRESSURE_TENTHS_DELTA = 1;
+    private static final byte[] HUGE_COUNT = {(byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+
+    @TempDir
+    private Path storeDirectory;
+
+    private CacheProperties cacheProperties;
+    private StoreProperties storeProperties;
+
+    @BeforeEach
+    void setUp() {
+        cacheProperties = new CacheProperties();
+        cacheProperties.setTtl(TTL);
+
+        storeProperties = new StoreProperties();
+        storeProperties.setEnabled(true);
+        storeProperties.setPath(storeDirectory.resolve(STORE_FILE).toString());
+    }
+
+    @Test
+    void restartedCacheShouldServeForecastsWrittenBeforeRestart() {
+        //given
+        ForecastStore forecastStore = new ForecastStore(storeProperties, cacheProperties);
+        ForecastCache forecastCache = new ForecastCache(cacheProperties, forecastStore);
+        forecastCache.warmFromStore();
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+        forecastStore.close();
+
+        //when
+        ForecastCache restartedCache = new ForecastCache(cacheProperties,
+                new ForecastStore(storeProperties, cacheProperties));
+        restartedCache.warmFromStore();
+
+        //then
+        WeatherDTO restored = restartedCache.get(LATITUDE, LONGITUDE, TOMORROW).orElseThrow();
+        assertEquals(MAX_TEMP, restored.getMaxTemp());
+        assertArrayEquals(WEATHER_CODES, restored.getWeatherCodes());
+        assertArrayEquals(DAILY_PRESSURE, restored.getDailyPressure());
+    }
+
+    @Test
+    void loadShouldKeepLatestLiveRecordPerKeyAndCompactTheRest() throws IOException {
+        //given
+        ForecastStore forecastStore = new ForecastStore(storeProperties, cacheProperties);
+        ForecastKey key = ForecastKey.of(LATITUDE, LONGITUDE, TOMORROW, cacheProperties.getGridSizeDegrees());
+        ForecastKey expiredKey = ForecastKey.of(LATITUDE, LONGITUDE, TOMORROW.plusDays(1),
+                cacheProperties.getGridSizeDegrees());
+        Instant now = Instant.now();
+        forecastStore.load(storedForecast -> true);
+        forecastStore.append(new StoredForecast(key, weatherFor(TOMORROW), now.minusSeconds(1)));
+        forecastStore.append(new StoredForecast(key, weatherFor(TOMORROW), now));
+        forecastStore.append(new StoredForecast(expiredKey, weatherFor(TOMORROW.plusDays(1)), now.minus(TTL)));
+        forecastStore.flush();
+        long sizeBeforeCompaction = Files.size(storePath());
+
+        //when
+        List<StoredForecast> liveForecasts = forecastStore.load(
+                storedForecast -> now.isBefore(storedForecast.fetchedAt().plus(TTL)));
+
+        //then
+        assertEquals(1, liveForecasts.size());
+        assertEquals(now.toEpochMilli(), liveForecasts.get(0).fetchedAt().toEpochMilli());
+        assertTrue(Files.size(storePath()) < sizeBeforeCompaction);
+    }
+
+    @Test
+    void loadShouldSkipRecordCutShortByCrash() throws IOException {
+        //given
+        ForecastStore forecastStore = new ForecastStore(storeProperties, cacheProperties);
+        ForecastKey key = ForecastKey.of(LATITUDE, LONGITUDE, TOMORROW, cacheProperties.getGridSizeDegrees());
+        ForecastKey secondKey = ForecastKey.of(LATITUDE, LONGITUDE, TOMORROW.plusDays(1),
+                cacheProperties.getGridSizeDegrees());
+        forecastStore.load(storedForecast -> true);
+        forecastStore.append(new StoredForecast(key, weatherFor(TOMORROW), Instant.now()));
+        forecastStore.append(new StoredForecast(secondKey, weatherFor(TOMORROW.plusDays(1)), Instant.now()));
+        forecastStore.close();
+        byte[] content = Files.readAllBytes(storePath());
+        Files.write(storePath(), Arrays.copyOf(content, content.length - TRUNCATED_BYTES));
+
+        //when
+        List<StoredForecast> liveForecasts = new ForecastStore(storeProperties, cacheProperties)
+                .load(storedForecast -> true);
+
+        //then
+        assertEquals(List.of(key), liveForecasts.stream().map(StoredForecast::key).toList());
+    }
+
+    @Test
+    void loadShouldDropCorruptRecordAndKeepStoreWritable() throws IOException {
+        //given
+        ForecastStore forecastStore = new ForecastStore(storeProperties, cacheProperties);
+        ForecastKey key = ForecastKey.of(LATITUDE, LONGITUDE, TOMORROW, cacheProperties.getGridSizeDegrees());
+        ForecastKey secondKey = ForecastKey.of(LATITUDE, LONGITUDE, TOMORROW.plusDays(1),
+                cacheProperties.getGridSizeDegrees());
+        forecastStore.load(storedForecast -> true);
+        forecastStore.append(new StoredForecast(key, weatherFor(TOMORROW), Instant.now()));
+        forecastStore.close();
+        appendRecord(UNKNOWN_FORMAT_PAYLOAD);
+
+        //when
+        ForecastStore restartedStore = new ForecastStore(storeProperties, cacheProperties);
+        List<StoredForecast> liveForecasts = restartedStore.load(storedForecast -> true);
+        restartedStore.append(new StoredForecast(secondKey, weatherFor(TOMORROW.plusDays(1)), Instant.now()));
+        restartedStore.close();
+
+        //then
+        assertEquals(List.of(key), liveForecasts.stream().map(StoredForecast::key).toList());
+        assertEquals(List.of(key, secondKey), new ForecastStore(storeProperties, cacheProperties)
+                .load(storedForecast -> true).stream().map(StoredForecast::key).toList());
+    }
+
+    @Test
+    void loadShouldDropRecordWhoseCountExceedsItsPayload() throws IOException {
+        //given
+        ForecastStore forecastStore = new ForecastStore(storeProperties, cacheProperties);
+        ForecastKey key = ForecastKey.of(LATITUDE, LONGITUDE, TOMORROW, cacheProperties.getGridSizeDegrees());
+        forecastStore.load(storedForecast -> true);
+        forecastStore.append(new StoredForecast(key, weatherFor(TOMORROW), Instant.now()));
+        forecastStore.close();
+        appendRecord(payloadWithHugePressureCount());
+
+        //when
+        List<StoredForecast> liveForecasts = new ForecastStore(storeProperties, cacheProperties)
+                .load(storedForecast -> true);
+
+        //then
+        assertEquals(List.of(key), liveForecasts.stream().map(StoredForecast::key).toList());
+    }
+
+    @Test
+    void appendShouldWriteQueuedDaysOnlyOnFlush() throws IOException {
+        //given
+        ForecastStore forecastStore = new ForecastStore(storeProperties, cacheProperties);
+        ForecastKey key = ForecastKey.of(LATITUDE, LONGITUDE, TOMORROW, cacheProperties.getGridSizeDegrees());
+        forecastStore.load(storedForecast -> true);
+        long emptyStoreSize = Files.size(storePath());
+
+        //when
+        forecastStore.append(new StoredForecast(key, weatherFor(TOMORROW), Instant.now()));
+
+        //then
+        assertEquals(emptyStoreSize, Files.size(storePath()));
+        forecastStore.flush();
+        assertTrue(Files.size(storePath()) > emptyStoreSize);
+    }
+
+    private void appendRecord(byte[] payload) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(storePath(),
+                StandardOpenOption.APPEND))) {
+            output.writeInt(0);
+            output.writeInt(0);
+            output.writeLong(Instant.now().toEpochMilli());
+            output.writeShort(payload.length);
+            output.write(payload);
+        }
+    }
+
+    private byte[] payloadWithHugePressureCount() {
+        byte[] encoded = WeatherDTOCodec.encode(WeatherDTO.builder().date(TOMORROW).build());
+        ByteBuffer payload = ByteBuffer.allocate(encoded.length + HUGE_COUNT.length);
+
+        // the trailing "no pressure" marker becomes a pressure list claiming about 2^31 entries
+        payload.put(encoded, 0, encoded.length - 1);
+        payload.put(PRESSURE_TENTHS_DELTA);
+        payload.put(HUGE_COUNT);
+        return payload.array();
+    }
+
+    private Path storePath() {
+        return Path.of(storeProperties.getPath());
+    }
+
+    private WeatherDTO weatherFor(LocalDate date) {
+        return WeatherDTO.builder()
+                .latitude(LATITUDE)
+                .longitude(LONGITUDE)
+                .date(date)
+                .maxTemp(MAX_TEMP)
+                .weatherCodes(WEATHER_CODES)
+                .dailyPressure(DAILY_PRESSURE)
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.codibly.cache;
+
+import com.codibly.dtos.WeatherDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OffHeapForecastStorageTest {
+
+    private static final double LATITUDE = 50.05;
+    private static final double LONGITUDE = 19.94;
+    private static final double GRID_SIZE_DEGREES = 0.01;
+    private static final LocalDate TODAY = LocalDate.parse("2024-12-30");
+    private static final Instant NOW = Instant.parse("2024-12-30T10:00:00Z");
+    private static final Instant EXPIRES_AT = NOW.plus(Duration.ofHours(1));
+    private static final double MAX_TEMP = 4.2;
+    private static final int WEATHER_CODE = 61;
+    private static final int MAX_ENTRIES = 3;
+    private static final int SLOT_BYTES = 256;
+    private static final int TINY_SLOT_BYTES = 8;
+    private static final int LATITUDE_CELL_WRAP = 1 << 21;
+    private static final int LONGITUDE_CELL = 1_994;
+
+    private final OffHeapForecastStorage storage = new OffHeapForecastStorage(MAX_ENTRIES, SLOT_BYTES);
+
+    @Test
+    void getShouldDecodeStoredForecastUntilItExpires() {
+        //given
+        ForecastKey key = keyFor(TODAY);
+        storage.put(key, weatherFor(TODAY), EXPIRES_AT, NOW);
+
+        //when
+        CachedForecast cached = storage.get(key, NOW);
+
+        //then
+        assertNotNull(cached);
+        assertEquals(EXPIRES_AT, cached.expiresAt());
+        WeatherDTO result = cached.weatherDTO();
+        assertEquals(TODAY, result.getDate());
+        assertEquals(MAX_TEMP, result.getMaxTemp());
+        assertArrayEquals(new int[]{WEATHER_CODE}, result.getWeatherCodes());
+        assertNull(storage.get(key, EXPIRES_AT));
+        assertEquals(0, storage.size());
+    }
+
+    @Test
+    void putShouldEvictUnreferencedEntryWhenFull() {
+        //given
+        for (int day = 0; day < MAX_ENTRIES; day++) {
+            storage.put(keyFor(TODAY.plusDays(day)), weatherFor(TODAY.plusDays(day)), EXPIRES_AT, NOW);
+        }
+        storage.get(keyFor(TODAY), NOW);
+
+        //when
+        storage.put(keyFor(TODAY.plusDays(MAX_ENTRIES)), weatherFor(TODAY.plusDays(MAX_ENTRIES)), EXPIRES_AT, NOW);
+
+        //then
+        assertNotNull(storage.get(keyFor(TODAY), NOW));
+        assertNull(storage.get(keyFor(TODAY.plusDays(1)), NOW));
+        assertNotNull(storage.get(keyFor(TODAY.plusDays(MAX_ENTRIES)), NOW));
+        assertEquals(1, storage.evictions());
+        assertEquals(MAX_ENTRIES, storage.size());
+    }
+
+    @Test
+    void putShouldSkipForecastLargerThanSlot() {
+        //given
+        OffHeapForecastStorage tinyStorage = new OffHeapForecastStorage(MAX_ENTRIES, TINY_SLOT_BYTES);
+
+        //when
+        tinyStorage.put(keyFor(TODAY), weatherFor(TODAY), EXPIRES_AT, NOW);
+
+        //then
+        assertNull(tinyStorage.get(keyFor(TODAY), NOW));
+        assertEquals(0, tinyStorage.size());
+    }
+
+    @Test
+    void packedKeyShouldDifferForNegativeCellsAndDates() {
+        //when
+        long key = ForecastKey.of(LATITUDE, LONGITUDE, TODAY, GRID_SIZE_DEGREES).packed();
+        long mirroredKey = ForecastKey.of(-LATITUDE, -LONGITUDE, TODAY, GRID_SIZE_DEGREES).packed();
+        long nextDayKey = ForecastKey.of(LATITUDE, LONGITUDE, TODAY.plusDays(1), GRID_SIZE_DEGREES).packed();
+
+        //then
+        assertNotEquals(key, mirroredKey);
+        assertNotEquals(key, nextDayKey);
+    }
+
+    @Test
+    void getShouldNotMixUpCellsWhosePackedKeysCollide() {
+        //given
+        ForecastKey key = new ForecastKey(0, LONGITUDE_CELL, TODAY);
+        ForecastKey collidingKey = new ForecastKey(LATITUDE_CELL_WRAP, LONGITUDE_CELL, TODAY);
+        storage.put(key, weatherFor(TODAY), EXPIRES_AT, NOW);
+
+        //when
+        CachedForecast missing = storage.get(collidingKey, NOW);
+        storage.put(collidingKey, weatherFor(TODAY.plusDays(1)), EXPIRES_AT, NOW);
+
+        //then
+        assertEquals(key.packed(), collidingKey.packed());
+        assertNull(missing);
+        assertEquals(TODAY, storage.get(key, NOW).weatherDTO().getDate());
+        assertEquals(TODAY.plusDays(1), storage.get(collidingKey, NOW).weatherDTO().getDate());
+        assertEquals(2, storage.size());
+    }
+
+    private ForecastKey keyFor(LocalDate date) {
+        return ForecastKey.of(LATITUDE, LONGITUDE, date, GRID_SIZE_DEGREES);
+    }
+
+    private WeatherDTO weatherFor(LocalDate date) {
+        return WeatherDTO.builder()
+                .latitude(LATITUDE)
+                .longitude(LONGITUDE)
+                .date(date)
+                .maxTemp(MAX_TEMP)
+                .weatherCodes(new int[]{WEATHER_CODE})
+                .build();
+    }
+}
@@ -0,0 +1,200 @@
+package com.codibly.cache;
+
+import com.codibly.config.CacheProperties;
+import com.codibly.config.StoreProperties;
+import com.codibly.dtos.WeatherDTO;
+import com.codibly.enums.ResponseType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseBytesCacheTest {
+
+    private static final double LATITUDE = 50.04968;
+    private static final double LONGITUDE = 19.944544;
+    private static final double NEARBY_LATITUDE = 50.0511;
+    private static final double OTHER_CELL_LATITUDE = 52.2297;
+    private static final Instant NOW = Instant.parse("2024-12-30T10:00:00Z");
+    private static final LocalDate TOMORROW = LocalDate.parse("2024-12-31");
+    private static final Duration FRESHNESS = Duration.ofMinutes(10);
+    private static final Duration UNTIL_MIDNIGHT = Duration.ofHours(14);
+    private static final byte[] BODY = "[{\"date\":\"2024-12-30\"}]".getBytes(StandardCharsets.UTF_8);
+
+    private MutableClock clock;
+    private ForecastCache forecastCache;
+    private ResponseBytesCache responseBytesCache;
+
+    @BeforeEach
+    void setUp() {
+        CacheProperties cacheProperties = new CacheProperties();
+
+        clock = new MutableClock(NOW);
+        forecastCache = new ForecastCache(cacheProperties, new ForecastStore(new StoreProperties(), cacheProperties),
+                clock);
+        responseBytesCache = new ResponseBytesCache(cacheProperties, forecastCache, clock);
+    }
+
+    @Test
+    void getShouldReturnBodyAndGzippedCopyWhileFresh() throws IOException {
+        //given
+        responseBytesCache.put(LATITUDE, LONGITUDE, ResponseType.FORECAST, BODY, FRESHNESS,
+                responseBytesCache.generation(LATITUDE, LONGITUDE));
+
+        //when
+        CachedResponse response = responseBytesCache.get(NEARBY_LATITUDE, LONGITUDE, ResponseType.FORECAST)
+                .orElseThrow();
+
+        //then
+        assertArrayEquals(BODY, response.body());
+        assertTrue(response.hasGzippedBody());
+        assertArrayEquals(BODY, new GZIPInputStream(new ByteArrayInputStream(response.gzippedBody())).readAllBytes());
+        assertNotEquals(response.etag(), response.gzippedEtag());
+        assertFalse(responseBytesCache.get(LATITUDE, LONGITUDE, ResponseType.SUMMARY).isPresent());
+
+        clock.advance(FRESHNESS);
+        assertFalse(responseBytesCache.get(LATITUDE, LONGITUDE, ResponseType.FORECAST).isPresent());
+
+        ResponseCacheStats stats = responseBytesCache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(0, stats.size());
+    }
+
+    @Test
+    void getShouldDropResponsesOfThePreviousDay() {
+        //given
+        responseBytesCache.put(LATITUDE, LONGITUDE, ResponseType.SUMMARY, BODY, UNTIL_MIDNIGHT.multipliedBy(2),
+                responseBytesCache.generation(LATITUDE, LONGITUDE));
+
+        //when
+        clock.advance(UNTIL_MIDNIGHT);
+
+        //then
+        assertFalse(responseBytesCache.get(LATITUDE, LONGITUDE, ResponseType.SUMMARY).isPresent());
+    }
+
+    @Test
+    void forecastChangeShouldInvalidateResponsesOfTheCell() {
+        //given
+        responseBytesCache.put(LATITUDE, LONGITUDE, ResponseType.FORECAST, BODY, FRESHNESS,
+                responseBytesCache.generation(LATITUDE, LONGITUDE));
+        responseBytesCache.put(LATITUDE, LONGITUDE, ResponseType.SUMMARY, BODY, FRESHNESS,
+                responseBytesCache.generation(LATITUDE, LONGITUDE));
+
+        //when
+        forecastCache.put(NEARBY_LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+
+        //then
+        assertFalse(responseBytesCache.get(LATITUDE, LONGITUDE, ResponseType.FORECAST).isPresent());
+        assertFalse(responseBytesCache.get(LATITUDE, LONGITUDE, ResponseType.SUMMARY).isPresent());
+        assertEquals(1, responseBytesCache.stats().invalidations());
+    }
+
+    @Test
+    void putShouldNotKeepBodyBuiltBeforeForecastChanged() {
+        //given
+        long observedGeneration = responseBytesCache.generation(LATITUDE, LONGITUDE);
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+
+        //when
+        CachedResponse response = responseBytesCache.put(LATITUDE, LONGITUDE, ResponseType.FORECAST, BODY, FRESHNESS,
+                observedGeneration);
+
+        //then
+        assertArrayEquals(BODY, response.body());
+        assertFalse(responseBytesCache.get(LATITUDE, LONGITUDE, ResponseType.FORECAST).isPresent());
+    }
+
+    @Test
+    void putShouldKeepBodyWhenOnlyAnotherCellChanged() {
+        //given
+        long observedGeneration = responseBytesCache.generation(LATITUDE, LONGITUDE);
+        forecastCache.put(OTHER_CELL_LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+
+        //when
+        responseBytesCache.put(LATITUDE, LONGITUDE, ResponseType.FORECAST, BODY, FRESHNESS, observedGeneration);
+
+        //then
+        assertTrue(responseBytesCache.get(LATITUDE, LONGITUDE, ResponseType.FORECAST).isPresent());
+    }
+
+    @Test
+    void putShouldNotKeepBodyBuiltBeforeForecastChangedEvenOnceTheCellIsForgotten() {
+        //given
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.getResponses().setMaxEntries(1);
+        ResponseBytesCache singleEntryCache = new ResponseBytesCache(cacheProperties, forecastCache, clock);
+        long observedGeneration = singleEntryCache.generation(LATITUDE, LONGITUDE);
+        forecastCache.put(LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+        forecastCache.put(OTHER_CELL_LATITUDE, LONGITUDE, weatherFor(TOMORROW));
+
+        //when
+        singleEntryCache.put(LATITUDE, LONGITUDE, ResponseType.FORECAST, BODY, FRESHNESS, observedGeneration);
+
+        //then
+        assertFalse(singleEntryCache.get(LATITUDE, LONGITUDE, ResponseType.FORECAST).isPresent());
+    }
+
+    @Test
+    void putShouldNotKeepResponsesWithoutFreshness() {
+        //given
+        CachedResponse response = responseBytesCache.put(LATITUDE, LONGITUDE, ResponseType.FORECAST, BODY,
+                Duration.ZERO, responseBytesCache.generation(LATITUDE, LONGITUDE));
+
+        //when/then
+        assertFalse(response.hasGzippedBody());
+        assertFalse(responseBytesCache.get(LATITUDE, LONGITUDE, ResponseType.FORECAST).isPresent());
+    }
+
+    private WeatherDTO weatherFor(LocalDate date) {
+        return WeatherDTO.builder()
+                .latitude(LATITUDE)
+                .longitude(LONGITUDE)
+                .date(date)
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
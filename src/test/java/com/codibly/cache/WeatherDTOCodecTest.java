@@ -0,0 +1,96 @@
+package com.codibly.cache;
+
+import com.codibly.config.JacksonConfig;
+import com.codibly.dtos.WeatherDTO;
+import com.codibly.mappers.WeatherJacksonMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeatherDTOCodecTest {
+
+    private static final String TWO_DAY_FORECAST = "/open-meteo/two-day-forecast.json";
+    private static final LocalDate DATE = LocalDate.parse("2024-12-30");
+    private static final double[] IRREGULAR_PRESSURE = {1012.43, Double.NaN, 1013.1};
+    private static final int MIN_COMPRESSION_RATIO = 3;
+    private static final byte UNKNOWN_VERSION = 99;
+    private static final byte[] HUGE_COUNT = {(byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+    private static final int COUNT_AND_PRESSURE_BYTES = 2;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    @Test
+    void decodedRecordsShouldSerializeToTheSameJsonAsTheOriginals() throws IOException {
+        //given
+        List<WeatherDTO> weatherDataList = new WeatherJacksonMapper(objectMapper).mapWeatherRange(readFixture());
+        assertFalse(weatherDataList.isEmpty());
+
+        for (WeatherDTO weatherDTO : weatherDataList) {
+            //when
+            byte[] encoded = WeatherDTOCodec.encode(weatherDTO);
+            WeatherDTO decoded = WeatherDTOCodec.decode(encoded);
+
+            //then
+            String originalJson = objectMapper.writeValueAsString(weatherDTO);
+            assertEquals(originalJson, objectMapper.writeValueAsString(decoded));
+            assertTrue(encoded.length * MIN_COMPRESSION_RATIO < originalJson.length());
+        }
+    }
+
+    @Test
+    void pressureThatIsNotInTenthsShouldRoundTripExactly() {
+        //given
+        WeatherDTO weatherDTO = WeatherDTO.builder()
+                .date(DATE)
+                .dailyPressure(IRREGULAR_PRESSURE)
+                .build();
+
+        //when
+        WeatherDTO decoded = WeatherDTOCodec.decode(WeatherDTOCodec.encode(weatherDTO));
+
+        //then
+        assertArrayEquals(IRREGULAR_PRESSURE, decoded.getDailyPressure());
+        assertTrue(Double.isNaN(decoded.getMaxTemp()));
+        assertEquals(0, decoded.getWeatherCodes().length);
+    }
+
+    @Test
+    void decodeShouldRejectUnknownFormatVersion() {
+        //given
+        byte[] encoded = WeatherDTOCodec.encode(WeatherDTO.builder().date(DATE).build());
+        encoded[0] = UNKNOWN_VERSION;
+
+        //when/then
+        assertThrows(IllegalArgumentException.class, () -> WeatherDTOCodec.decode(encoded));
+    }
+
+    @Test
+    void decodeShouldRejectCountsLargerThanTheRecord() {
+        //given
+        byte[] encoded = WeatherDTOCodec.encode(WeatherDTO.builder().date(DATE).build());
+        byte[] corrupt = Arrays.copyOf(encoded, encoded.length - COUNT_AND_PRESSURE_BYTES + HUGE_COUNT.length);
+        System.arraycopy(HUGE_COUNT, 0, corrupt, encoded.length - COUNT_AND_PRESSURE_BYTES, HUGE_COUNT.length);
+
+        //when/then
+        assertThrows(IllegalArgumentException.class, () -> WeatherDTOCodec.decode(corrupt));
+    }
+
+    private byte[] readFixture() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream(TWO_DAY_FORECAST)) {
+            assertNotNull(inputStream);
+            return inputStream.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.codibly.connectivity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncSemaphoreTest {
+
+    private static final int MAX_CONCURRENCY = 2;
+    private static final int SUBMITTED_CALLS = 4;
+    private static final int SYNCHRONOUS_CALLS = 100_000;
+
+    private final AsyncSemaphore asyncSemaphore = new AsyncSemaphore(MAX_CONCURRENCY);
+
+    @Test
+    void submitShouldStartNoMoreThanMaxConcurrencyCalls() {
+        //given
+        AtomicInteger startedCalls = new AtomicInteger();
+        List<CompletableFuture<Integer>> upstreamCalls = new ArrayList<>();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+
+        for (int call = 0; call < SUBMITTED_CALLS; call++) {
+            upstreamCalls.add(new CompletableFuture<>());
+        }
+
+        //when
+        for (int call = 0; call < SUBMITTED_CALLS; call++) {
+            CompletableFuture<Integer> upstreamCall = upstreamCalls.get(call);
+            results.add(asyncSemaphore.submit(() -> {
+                startedCalls.incrementAndGet();
+                return upstreamCall;
+            }));
+        }
+
+        //then
+        assertEquals(MAX_CONCURRENCY, startedCalls.get());
+        assertEquals(SUBMITTED_CALLS - MAX_CONCURRENCY, asyncSemaphore.waitingCalls());
+
+        upstreamCalls.get(0).complete(0);
+        assertEquals(MAX_CONCURRENCY + 1, startedCalls.get());
+        assertEquals(0, results.get(0).join());
+
+        for (int call = 1; call < SUBMITTED_CALLS; call++) {
+            upstreamCalls.get(call).complete(call);
+        }
+        assertEquals(SUBMITTED_CALLS, startedCalls.get());
+        assertEquals(0, asyncSemaphore.waitingCalls());
+    }
+
+    @Test
+    void failedCallShouldReleaseItsPermit() {
+        //given
+        AsyncSemaphore singlePermit = new AsyncSemaphore(1);
+
+        //when
+        CompletableFuture<Integer> failedCall = singlePermit.submit(() -> {
+            throw new IllegalStateException("upstream failed");
+        });
+        CompletableFuture<Integer> nextCall = singlePermit.submit(() -> CompletableFuture.completedFuture(1));
+
+        //then
+        assertTrue(failedCall.isCompletedExceptionally());
+        assertEquals(1, nextCall.join());
+    }
+
+    @Test
+    void submitShouldRejectCallsOnceWaitingQueueIsFull() {
+        //given
+        AsyncSemaphore bulkhead = new AsyncSemaphore(1, 1);
+        CompletableFuture<Integer> runningCall = new CompletableFuture<>();
+        bulkhead.submit(() -> runningCall);
+        CompletableFuture<Integer> waitingCall = bulkhead.submit(() -> CompletableFuture.completedFuture(1));
+
+        //when
+        CompletableFuture<Integer> rejectedCall = bulkhead.submit(() -> CompletableFuture.completedFuture(1));
+
+        //then
+        assertTrue(rejectedCall.isCompletedExceptionally());
+        assertEquals(1, bulkhead.rejectedCalls());
+        runningCall.complete(0);
+        assertEquals(1, waitingCall.join());
+    }
+
+    @Test
+    void releaseShouldRunWaitingSynchronousCallsWithoutRecursion() {
+        //given
+        AsyncSemaphore singlePermit = new AsyncSemaphore(1);
+        CompletableFuture<Integer> runningCall = new CompletableFuture<>();
+        singlePermit.submit(() -> runningCall);
+        List<CompletableFuture<Integer>> waitingCalls = new ArrayList<>();
+
+        for (int call = 0; call < SYNCHRONOUS_CALLS; call++) {
+            int value = call;
+            waitingCalls.add(singlePermit.submit(() -> CompletableFuture.completedFuture(value)));
+        }
+
+        //when
+        runningCall.complete(0);
+
+        //then
+        assertTrue(waitingCalls.get(SYNCHRONOUS_CALLS - 1).isDone());
+        assertEquals(SYNCHRONOUS_CALLS - 1, waitingCalls.get(SYNCHRONOUS_CALLS - 1).join());
+        assertEquals(0, singlePermit.waitingCalls());
+        assertEquals(0, singlePermit.runningCalls());
+    }
+}
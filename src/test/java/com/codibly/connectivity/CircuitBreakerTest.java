@@ -0,0 +1,128 @@
+package com.codibly.connectivity;
+
+import com.codibly.enums.CircuitState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final int SLIDING_WINDOW_SIZE = 4;
+    private static final int MINIMUM_CALLS = 4;
+    private static final int FAILURE_RATE_THRESHOLD = 50;
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    private static final int HALF_OPEN_CALLS = 2;
+    private static final Instant NOW = Instant.parse("2024-12-30T10:00:00Z");
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(SLIDING_WINDOW_SIZE, MINIMUM_CALLS,
+            FAILURE_RATE_THRESHOLD, OPEN_DURATION, HALF_OPEN_CALLS, clock);
+
+    @Test
+    void shouldOpenOnceFailureRateReachesThresholdAndRejectCalls() {
+        //given
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        //when
+        circuitBreaker.onFailure();
+
+        //then
+        assertEquals(CircuitState.OPEN, circuitBreaker.state());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertEquals(1, circuitBreaker.stats().notPermittedCalls());
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulTrialCallsInHalfOpenState() {
+        //given
+        openCircuit();
+        clock.advance(OPEN_DURATION);
+
+        //when
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+
+        //then
+        assertEquals(CircuitState.CLOSED, circuitBreaker.state());
+        assertEquals(0, circuitBreaker.stats().bufferedCalls());
+    }
+
+    @Test
+    void shouldNotPermitCallsWhileEveryTrialCallIsOutstanding() {
+        //given
+        openCircuit();
+        clock.advance(OPEN_DURATION);
+        assertTrue(circuitBreaker.permitsCalls());
+
+        //when
+        circuitBreaker.tryAcquirePermission();
+        assertTrue(circuitBreaker.permitsCalls());
+        circuitBreaker.tryAcquirePermission();
+
+        //then
+        assertFalse(circuitBreaker.permitsCalls());
+        assertEquals(CircuitState.HALF_OPEN, circuitBreaker.state());
+    }
+
+    @Test
+    void shouldReopenWhenTrialCallFails() {
+        //given
+        openCircuit();
+        clock.advance(OPEN_DURATION);
+        circuitBreaker.tryAcquirePermission();
+
+        //when
+        circuitBreaker.onFailure();
+
+        //then
+        assertEquals(CircuitState.OPEN, circuitBreaker.state());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    private void openCircuit() {
+        for (int call = 0; call < SLIDING_WINDOW_SIZE; call++) {
+            circuitBreaker.onFailure();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
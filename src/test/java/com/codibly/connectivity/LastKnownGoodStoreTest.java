@@ -0,0 +1,59 @@
+package com.codibly.connectivity;
+
+import com.codibly.config.UpstreamProperties;
+import com.codibly.dtos.WeatherDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LastKnownGoodStoreTest {
+
+    private static final double LATITUDE = 50.05;
+    private static final double LONGITUDE = 19.94;
+    private static final double OTHER_LATITUDE = 52.23;
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final int MAX_LOCATIONS = 1;
+
+    @Test
+    void findShouldReturnRememberedDaysWithinRange() {
+        //given
+        LastKnownGoodStore lastKnownGoodStore = new LastKnownGoodStore(new UpstreamProperties());
+        lastKnownGoodStore.remember(LATITUDE, LONGITUDE, List.of(weatherFor(TODAY), weatherFor(TODAY.plusDays(2))));
+        lastKnownGoodStore.remember(LATITUDE, LONGITUDE, List.of(weatherFor(TODAY.plusDays(1))));
+
+        //when
+        List<WeatherDTO> result = lastKnownGoodStore.find(LATITUDE, LONGITUDE, TODAY, TODAY.plusDays(1));
+
+        //then
+        assertEquals(List.of(TODAY, TODAY.plusDays(1)), result.stream().map(WeatherDTO::getDate).toList());
+        assertEquals(1, lastKnownGoodStore.fallbacks());
+    }
+
+    @Test
+    void rememberShouldEvictLeastRecentlyUsedLocation() {
+        //given
+        UpstreamProperties upstreamProperties = new UpstreamProperties();
+        upstreamProperties.getResilience().setLastKnownGoodLocations(MAX_LOCATIONS);
+        LastKnownGoodStore lastKnownGoodStore = new LastKnownGoodStore(upstreamProperties);
+
+        //when
+        lastKnownGoodStore.remember(LATITUDE, LONGITUDE, List.of(weatherFor(TODAY)));
+        lastKnownGoodStore.remember(OTHER_LATITUDE, LONGITUDE, List.of(weatherFor(TODAY)));
+
+        //then
+        assertTrue(lastKnownGoodStore.find(LATITUDE, LONGITUDE, TODAY, TODAY).isEmpty());
+        assertEquals(MAX_LOCATIONS, lastKnownGoodStore.size());
+    }
+
+    private WeatherDTO weatherFor(LocalDate date) {
+        return WeatherDTO.builder()
+                .latitude(LATITUDE)
+                .longitude(LONGITUDE)
+                .date(date)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.codibly.connectivity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private static final String KEY = "50.0,19.0,2024-12-30";
+    private static final String OTHER_KEY = "52.2,21.0,2024-12-30";
+    private static final String RESULT = "forecast";
+    private static final int CONCURRENT_CALLERS = 10;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersForSameKeyShouldShareOneCall() {
+        //given
+        AtomicInteger callCount = new AtomicInteger();
+        CompletableFuture<String> upstreamCall = new CompletableFuture<>();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+
+        //when
+        for (int caller = 0; caller < CONCURRENT_CALLERS; caller++) {
+            results.add(singleFlight.execute(KEY, () -> {
+                callCount.incrementAndGet();
+                return upstreamCall;
+            }));
+        }
+        upstreamCall.complete(RESULT);
+
+        //then
+        assertEquals(1, callCount.get());
+        results.forEach(result -> assertEquals(RESULT, result.join()));
+
+        SingleFlightStats stats = singleFlight.stats();
+        assertEquals(1, stats.executions());
+        assertEquals(CONCURRENT_CALLERS - 1, stats.coalescedCalls());
+        assertEquals(0, stats.inFlightCalls());
+    }
+
+    @Test
+    void callersForDifferentKeysShouldNotBeCoalesced() {
+        //given
+        AtomicInteger callCount = new AtomicInteger();
+
+        //when
+        singleFlight.execute(KEY,
+                () -> CompletableFuture.completedFuture(String.valueOf(callCount.incrementAndGet())));
+        singleFlight.execute(OTHER_KEY,
+                () -> CompletableFuture.completedFuture(String.valueOf(callCount.incrementAndGet())));
+
+        //then
+        assertEquals(2, callCount.get());
+        assertEquals(0, singleFlight.stats().coalescedCalls());
+    }
+
+    @Test
+    void completedCallShouldNotBeReusedBySubsequentCallers() {
+        //given
+        AtomicInteger callCount = new AtomicInteger();
+
+        //when
+        singleFlight.execute(KEY,
+                () -> CompletableFuture.completedFuture(String.valueOf(callCount.incrementAndGet()))).join();
+        String secondResult = singleFlight.execute(KEY,
+                () -> CompletableFuture.completedFuture(String.valueOf(callCount.incrementAndGet()))).join();
+
+        //then
+        assertEquals("2", secondResult);
+    }
+
+    @Test
+    void failureShouldBePropagatedToAllCallersAndReleaseTheKey() {
+        //given
+        CompletableFuture<String> upstreamCall = new CompletableFuture<>();
+        CompletableFuture<String> firstCaller = singleFlight.execute(KEY, () -> upstreamCall);
+        CompletableFuture<String> secondCaller = singleFlight.execute(KEY, () -> upstreamCall);
+
+        //when
+        upstreamCall.completeExceptionally(new IllegalStateException("upstream failed"));
+
+        //then
+        assertThrows(CompletionException.class, firstCaller::join);
+        assertThrows(CompletionException.class, secondCaller::join);
+        assertEquals(RESULT, singleFlight.execute(KEY, () -> CompletableFuture.completedFuture(RESULT)).join());
+    }
+}
@@ -0,0 +1,169 @@
+package com.codibly.connectivity;
+
+import com.codibly.config.UpstreamProperties;
+import com.codibly.enums.CircuitState;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UpstreamClientTest {
+
+    private static final HttpRequest REQUEST = HttpRequest.newBuilder(URI.create("http://localhost/v1/forecast"))
+            .GET()
+            .build();
+    private static final byte[] BODY = "{}".getBytes(StandardCharsets.UTF_8);
+    private static final int OK = 200;
+    private static final int BAD_REQUEST = 400;
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int MAX_CONCURRENCY = 4;
+    private static final String CALLS_METRIC = "weather.upstream.calls";
+    private static final String STATUS_TAG = "status";
+    private static final String VERSION_TAG = "version";
+
+    @Mock
+    private HttpClient httpClient;
+
+    @Mock
+    private HttpResponse<byte[]> response;
+
+    @Mock
+    private HttpResponse<byte[]> retriedResponse;
+
+    private UpstreamProperties upstreamProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private UpstreamClient upstreamClient;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        upstreamProperties = new UpstreamProperties();
+        upstreamProperties.getResilience().setMaxAttempts(MAX_ATTEMPTS);
+        upstreamProperties.getResilience().setInitialBackoff(Duration.ZERO);
+        upstreamProperties.getResilience().setMinimumCalls(MAX_ATTEMPTS);
+        upstreamProperties.getResilience().setSlidingWindowSize(MAX_ATTEMPTS);
+        upstreamClient = new UpstreamClient(httpClient, upstreamProperties, new AsyncSemaphore(MAX_CONCURRENCY),
+                Runnable::run, observationRegistry, Clock.systemUTC());
+    }
+
+    @Test
+    void getShouldRetryServerErrorsAndReturnBody() {
+        //given
+        given(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .willReturn(CompletableFuture.completedFuture(response))
+                .willReturn(CompletableFuture.completedFuture(retriedResponse));
+        given(response.statusCode()).willReturn(SERVICE_UNAVAILABLE);
+        given(retriedResponse.statusCode()).willReturn(OK);
+        given(retriedResponse.version()).willReturn(HttpClient.Version.HTTP_2);
+        given(retriedResponse.body()).willReturn(BODY);
+
+        //when
+        byte[] result = upstreamClient.get(REQUEST).join();
+
+        //then
+        assertArrayEquals(BODY, result);
+        assertEquals(1, upstreamClient.stats().retries());
+        assertEquals(1, meterRegistry.get(CALLS_METRIC).tag(STATUS_TAG, String.valueOf(SERVICE_UNAVAILABLE))
+                .timer().count());
+        assertEquals(1, meterRegistry.get(CALLS_METRIC).tag(STATUS_TAG, String.valueOf(OK))
+                .tag(VERSION_TAG, HttpClient.Version.HTTP_2.name()).timer().count());
+    }
+
+    @Test
+    void getShouldNotRetryClientErrors() {
+        //given
+        givenResponses();
+        given(response.statusCode()).willReturn(BAD_REQUEST);
+
+        //when
+        CompletionException error = assertThrows(CompletionException.class, () -> upstreamClient.get(REQUEST).join());
+
+        //then
+        assertInstanceOf(UpstreamStatusException.class, error.getCause());
+        assertEquals(0, upstreamClient.stats().retries());
+    }
+
+    @Test
+    void getShouldFailFastOnceRepeatedFailuresOpenTheCircuit() {
+        //given
+        given(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .willReturn(CompletableFuture.failedFuture(new IOException("connection reset")));
+        assertThrows(CompletionException.class, () -> upstreamClient.get(REQUEST).join());
+
+        //when
+        CompletionException error = assertThrows(CompletionException.class, () -> upstreamClient.get(REQUEST).join());
+
+        //then
+        assertInstanceOf(CircuitBreakerOpenException.class, error.getCause());
+        verify(httpClient, times(MAX_ATTEMPTS))
+                .sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any());
+    }
+
+    @Test
+    void getShouldFailFastWithoutSpendingBudgetWhileTheTrialCallIsOutstanding() {
+        //given
+        upstreamProperties.getRateLimit().setRequestsPerMinute(2);
+        UpstreamProperties.Resilience resilience = upstreamProperties.getResilience();
+        resilience.setMaxAttempts(1);
+        resilience.setMinimumCalls(1);
+        resilience.setSlidingWindowSize(1);
+        resilience.setOpenDuration(Duration.ZERO);
+        resilience.setHalfOpenCalls(1);
+        UpstreamClient singleSlotClient = new UpstreamClient(httpClient, upstreamProperties, new AsyncSemaphore(1),
+                Runnable::run, ObservationRegistry.NOOP, Clock.systemUTC());
+        CompletableFuture<HttpResponse<byte[]>> trialResponse = new CompletableFuture<>();
+        given(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .willReturn(CompletableFuture.failedFuture(new IOException("connection reset")))
+                .willReturn(trialResponse);
+        given(response.statusCode()).willReturn(OK);
+        given(response.version()).willReturn(HttpClient.Version.HTTP_1_1);
+        given(response.body()).willReturn(BODY);
+        assertThrows(CompletionException.class, () -> singleSlotClient.get(REQUEST).join());
+        CompletableFuture<byte[]> trial = singleSlotClient.get(REQUEST);
+
+        //when
+        CompletableFuture<byte[]> rejected = singleSlotClient.get(REQUEST);
+
+        //then
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(CircuitBreakerOpenException.class, error.getCause());
+        assertEquals(0, singleSlotClient.stats().rateLimiter().rejectedCalls());
+        trialResponse.complete(response);
+        assertArrayEquals(BODY, trial.join());
+        assertEquals(CircuitState.CLOSED, singleSlotClient.stats().circuitBreaker().state());
+    }
+
+    private void givenResponses() {
+        given(httpClient.sendAsync(any(HttpRequest.class), ArgumentMatchers.<HttpResponse.BodyHandler<byte[]>>any()))
+                .willReturn(CompletableFuture.completedFuture(response));
+    }
+}
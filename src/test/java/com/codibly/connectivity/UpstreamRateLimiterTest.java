@@ -0,0 +1,145 @@
+package com.codibly.connectivity;
+
+import com.codibly.config.UpstreamProperties;
+import com.codibly.enums.RequestPriority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamRateLimiterTest {
+
+    private static final Clock FIXED_CLOCK = Clock.fixed(Instant.parse("2024-12-30T10:00:00Z"), ZoneOffset.UTC);
+    private static final int REQUESTS_PER_MINUTE = 2;
+    private static final int FAST_REQUESTS_PER_MINUTE = 6_000;
+    private static final int BATCH_LOCATIONS = 5;
+    private static final Duration MAX_WAIT = Duration.ofMinutes(1);
+    private static final Duration SHORT_MAX_WAIT = Duration.ofMillis(50);
+
+    @Test
+    void acquireShouldAdmitCallsWithinBudgetAndQueueTheRest() {
+        //given
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(rateLimit(REQUESTS_PER_MINUTE), FIXED_CLOCK);
+
+        //when
+        CompletableFuture<Void> first = rateLimiter.acquire(RequestPriority.INTERACTIVE, 1);
+        CompletableFuture<Void> second = rateLimiter.acquire(RequestPriority.INTERACTIVE, 1);
+        CompletableFuture<Void> third = rateLimiter.acquire(RequestPriority.INTERACTIVE, 1);
+
+        //then
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertFalse(third.isDone());
+
+        RateLimiterStats stats = rateLimiter.stats();
+        assertEquals(0, stats.remainingPerMinute());
+        assertEquals(1, stats.queuedCalls());
+    }
+
+    @Test
+    void acquireShouldRejectCallsWhenQueueIsFull() {
+        //given
+        UpstreamProperties.RateLimit rateLimit = rateLimit(REQUESTS_PER_MINUTE);
+        rateLimit.setMaxQueuedCalls(1);
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(rateLimit, FIXED_CLOCK);
+        rateLimiter.acquire(RequestPriority.INTERACTIVE, REQUESTS_PER_MINUTE);
+        rateLimiter.acquire(RequestPriority.INTERACTIVE, 1);
+
+        //when
+        CompletableFuture<Void> rejected = rateLimiter.acquire(RequestPriority.BATCH, 1);
+
+        //then
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(1, rateLimiter.stats().rejectedCalls());
+    }
+
+    @Test
+    void queuedInteractiveCallsShouldBeAdmittedBeforeBatchCalls() {
+        //given
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(rateLimit(FAST_REQUESTS_PER_MINUTE),
+                Clock.systemUTC());
+        rateLimiter.acquire(RequestPriority.INTERACTIVE, FAST_REQUESTS_PER_MINUTE);
+        List<RequestPriority> admissionOrder = Collections.synchronizedList(new ArrayList<>());
+
+        //when
+        CompletableFuture<Void> batch = rateLimiter.acquire(RequestPriority.BATCH, BATCH_LOCATIONS)
+                .thenRun(() -> admissionOrder.add(RequestPriority.BATCH));
+        CompletableFuture<Void> interactive = rateLimiter.acquire(RequestPriority.INTERACTIVE, 1)
+                .thenRun(() -> admissionOrder.add(RequestPriority.INTERACTIVE));
+        CompletableFuture.allOf(batch, interactive).join();
+
+        //then
+        assertEquals(List.of(RequestPriority.INTERACTIVE, RequestPriority.BATCH), admissionOrder);
+    }
+
+    @Test
+    void acquireShouldRejectCallsThatCouldNotBeAdmittedWithinMaxWait() {
+        //given
+        UpstreamProperties.RateLimit rateLimit = rateLimit(REQUESTS_PER_MINUTE);
+        rateLimit.setMaxWait(SHORT_MAX_WAIT);
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(rateLimit, FIXED_CLOCK);
+        rateLimiter.acquire(RequestPriority.INTERACTIVE, REQUESTS_PER_MINUTE);
+
+        //when
+        CompletableFuture<Void> rejected = rateLimiter.acquire(RequestPriority.INTERACTIVE, 1);
+
+        //then
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(0, rateLimiter.stats().queuedCalls());
+        assertEquals(1, rateLimiter.stats().rejectedCalls());
+    }
+
+    @Test
+    void queuedCallsShouldBeRejectedOnceTheyWaitedMaxWait() {
+        //given
+        UpstreamProperties.RateLimit rateLimit = rateLimit(FAST_REQUESTS_PER_MINUTE);
+        rateLimit.setMaxWait(SHORT_MAX_WAIT);
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(rateLimit, FIXED_CLOCK);
+        rateLimiter.acquire(RequestPriority.INTERACTIVE, FAST_REQUESTS_PER_MINUTE);
+
+        //when
+        CompletableFuture<Void> waiting = rateLimiter.acquire(RequestPriority.INTERACTIVE, 1);
+
+        //then
+        CompletionException error = assertThrows(CompletionException.class, waiting::join);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(0, rateLimiter.stats().queuedCalls());
+        assertEquals(1, rateLimiter.stats().rejectedCalls());
+    }
+
+    @Test
+    void cancelledCallsShouldLeaveTheQueue() {
+        //given
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(rateLimit(REQUESTS_PER_MINUTE), FIXED_CLOCK);
+        rateLimiter.acquire(RequestPriority.INTERACTIVE, REQUESTS_PER_MINUTE);
+        CompletableFuture<Void> waiting = rateLimiter.acquire(RequestPriority.INTERACTIVE, 1);
+
+        //when
+        waiting.cancel(false);
+
+        //then
+        assertEquals(0, rateLimiter.stats().queuedCalls());
+        assertEquals(0, rateLimiter.stats().rejectedCalls());
+    }
+
+    private UpstreamProperties.RateLimit rateLimit(int requestsPerMinute) {
+        UpstreamProperties.RateLimit rateLimit = new UpstreamProperties.RateLimit();
+        rateLimit.setRequestsPerMinute(requestsPerMinute);
+        rateLimit.setMaxWait(MAX_WAIT);
+        return rateLimit;
+    }
+}
@@ -1,23 +1,33 @@
 package com.codibly.connectivity;
 
+import com.codibly.config.UpstreamProperties;
 import com.codibly.dtos.WeatherDTO;
+import com.codibly.enums.RequestPriority;
 import com.codibly.mappers.WeatherJacksonMapper;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
 
 @ExtendWith(MockitoExtension.class)
 class WeatherAPIHandlerTest {
@@ -26,17 +36,31 @@ class WeatherAPIHandlerTest {
     private static final double LONGITUDE = 19.944544;
     private static final LocalDate START_DATE = LocalDate.now();
     private static final double MAX_TEMP_PARAMETER = 15.0;
+    private static final byte[] BODY = "{}".getBytes(StandardCharsets.UTF_8);
+    private static final String DROPPED_DAYS_METRIC = "weather.upstream.dropped.days";
+    private static final String FETCH_METRIC = "weather.upstream.fetch";
 
     @Mock
     private WeatherJacksonMapper weatherJacksonMapper;
 
-    @InjectMocks
+    @Mock
+    private UpstreamClient mockedUpstreamClient;
+
+    private SimpleMeterRegistry meterRegistry;
     private WeatherAPIHandler weatherAPIHandler;
 
     private WeatherDTO mockWeatherDTO;
 
     @BeforeEach
     void setUp() {
+        UpstreamProperties upstreamProperties = new UpstreamProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        weatherAPIHandler = new WeatherAPIHandler(weatherJacksonMapper, mockedUpstreamClient,
+                new LastKnownGoodStore(upstreamProperties), upstreamProperties, meterRegistry,
+                observationRegistry, Runnable::run);
+
         mockWeatherDTO = WeatherDTO.builder()
                 .latitude(LATITUDE)
                 .longitude(LONGITUDE)
@@ -48,7 +72,8 @@ class WeatherAPIHandlerTest {
     @Test
     void fetchOneDayWeatherShouldReturnSuccessfulResponse() {
         //given
-        given(weatherJacksonMapper.mapWeather(anyString())).willReturn(mockWeatherDTO);
+        given(mockedUpstreamClient.get(any(HttpRequest.class))).willReturn(CompletableFuture.completedFuture(BODY));
+        given(weatherJacksonMapper.mapWeather(any(byte[].class))).willReturn(mockWeatherDTO);
 
         //when
         Optional<WeatherDTO> result = weatherAPIHandler.fetchOneDayWeather(LATITUDE, LONGITUDE, START_DATE);
@@ -62,7 +87,8 @@ class WeatherAPIHandlerTest {
     @Test
     void fetchOneDayWeatherShouldReturnOptionalEmptyOnFailure() {
         //given
-        given(weatherJacksonMapper.mapWeather(anyString())).willReturn(null);
+        given(mockedUpstreamClient.get(any(HttpRequest.class))).willReturn(CompletableFuture.completedFuture(BODY));
+        given(weatherJacksonMapper.mapWeather(any(byte[].class))).willReturn(null);
 
         //when
         Optional<WeatherDTO> result = weatherAPIHandler.fetchOneDayWeather(LATITUDE, LONGITUDE, START_DATE);
@@ -79,7 +105,10 @@ class WeatherAPIHandlerTest {
 
         LocalDate endDate = START_DATE.plusDays(daysToAdd);
 
-        given(weatherJacksonMapper.mapWeather(anyString())).willReturn(mockWeatherDTO);
+        given(mockedUpstreamClient.get(any(), eq(RequestPriority.INTERACTIVE), eq(1)))
+                .willReturn(CompletableFuture.completedFuture(BODY));
+        given(weatherJacksonMapper.mapWeatherRange(any(byte[].class)))
+                .willReturn(List.of(mockWeatherDTO, mockWeatherDTO, mockWeatherDTO));
 
         //when
         List<WeatherDTO> result = weatherAPIHandler.fetchWeatherForDateRange(LATITUDE, LONGITUDE, START_DATE, endDate);
@@ -104,4 +133,76 @@ class WeatherAPIHandlerTest {
         //then
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    void fetchWeatherPerDayAsyncWithEmptyRangeShouldReturnEmptyResult() {
+        //given
+        final int daysToSubtract = 2;
+        LocalDate endDate = START_DATE.minusDays(daysToSubtract);
+
+        //when
+        DateRangeFetchResult result = weatherAPIHandler.fetchWeatherPerDayAsync(LATITUDE, LONGITUDE, START_DATE,
+                endDate).join();
+
+        //then
+        assertTrue(result.weatherData().isEmpty());
+        assertTrue(result.isComplete());
+    }
+
+    @Test
+    void fetchWeatherPerDayAsyncShouldKeepDateOrderAndReportFailedDays() {
+        //given
+        final LocalDate secondDay = START_DATE.plusDays(1);
+        final LocalDate thirdDay = START_DATE.plusDays(2);
+
+        WeatherAPIHandler weatherAPIHandlerSpy = spy(weatherAPIHandler);
+        CompletableFuture<Optional<WeatherDTO>> slowFirstDay = new CompletableFuture<>();
+
+        doReturn(slowFirstDay)
+                .when(weatherAPIHandlerSpy).fetchOneDayWeatherAsync(LATITUDE, LONGITUDE, START_DATE);
+        doReturn(CompletableFuture.completedFuture(Optional.empty()))
+                .when(weatherAPIHandlerSpy).fetchOneDayWeatherAsync(LATITUDE, LONGITUDE, secondDay);
+        doReturn(CompletableFuture.completedFuture(Optional.of(weatherFor(thirdDay))))
+                .when(weatherAPIHandlerSpy).fetchOneDayWeatherAsync(LATITUDE, LONGITUDE, thirdDay);
+
+        //when
+        CompletableFuture<DateRangeFetchResult> result = weatherAPIHandlerSpy.fetchWeatherPerDayAsync(
+                LATITUDE, LONGITUDE, START_DATE, thirdDay);
+        slowFirstDay.complete(Optional.of(weatherFor(START_DATE)));
+
+        //then
+        DateRangeFetchResult fetchResult = result.join();
+        assertFalse(fetchResult.isComplete());
+        assertEquals(List.of(START_DATE, thirdDay),
+                fetchResult.weatherData().stream().map(WeatherDTO::getDate).toList());
+        assertEquals(List.of(secondDay), fetchResult.failedDates());
+    }
+
+    @Test
+    void fetchWeatherForDateRangeShouldCountDroppedDays() {
+        //given
+        final int fullDaysRange = 3;
+        final int droppedDays = 2;
+        LocalDate endDate = START_DATE.plusDays(fullDaysRange - 1);
+
+        given(mockedUpstreamClient.get(any(), eq(RequestPriority.INTERACTIVE), eq(1)))
+                .willReturn(CompletableFuture.completedFuture(BODY));
+        given(weatherJacksonMapper.mapWeatherRange(BODY)).willReturn(List.of(mockWeatherDTO));
+
+        //when
+        List<WeatherDTO> result = weatherAPIHandler.fetchWeatherForDateRange(LATITUDE, LONGITUDE, START_DATE, endDate);
+
+        //then
+        assertEquals(1, result.size());
+        assertEquals(droppedDays, meterRegistry.get(DROPPED_DAYS_METRIC).counter().count());
+        assertEquals(1, meterRegistry.get(FETCH_METRIC).tag("outcome", "INCOMPLETE").timer().count());
+    }
+
+    private WeatherDTO weatherFor(LocalDate date) {
+        return WeatherDTO.builder()
+                .latitude(LATITUDE)
+                .longitude(LONGITUDE)
+                .date(date)
+                .build();
+    }
 }
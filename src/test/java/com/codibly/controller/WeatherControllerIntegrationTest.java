@@ -7,11 +7,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDate;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -27,11 +29,16 @@ class WeatherControllerIntegrationTest {
         //given
         LocalDate today = LocalDate.now();
 
-        //when/then
-        mockMvc.perform(MockMvcRequestBuilders.get("/weather/forecast")
+        //when
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/weather/forecast")
                         .param("latitude", "50.0")
                         .param("longitude", "19.0")
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(7))
                 .andExpect(jsonPath("$[0].date").value(today.toString()))
@@ -42,11 +49,16 @@ class WeatherControllerIntegrationTest {
 
     @Test
     void getWeeklySummaryShouldReturnSummary() throws Exception {
-        //when/then
-        mockMvc.perform(MockMvcRequestBuilders.get("/weather/summary")
+        //when
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/weather/summary")
                         .param("latitude", "50.0")
                         .param("longitude", "19.0")
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.avgPressureHPa").isNumber())
                 .andExpect(jsonPath("$.avgSunshineDurationSeconds").isNumber())
@@ -1,28 +1,63 @@
 package com.codibly.controller;
 
+import com.codibly.cache.ForecastCache;
+import com.codibly.cache.ResponseBytesCache;
+import com.codibly.config.CacheProperties;
+import com.codibly.config.GridProperties;
+import com.codibly.connectivity.CircuitBreakerOpenException;
+import com.codibly.connectivity.LocationChunk;
+import com.codibly.dtos.LocationDTO;
+import com.codibly.dtos.LocationForecastDTO;
 import com.codibly.dtos.WeatherForecastDTO;
+import com.codibly.dtos.WeatherSummaryDTO;
+import com.codibly.services.CoordinateResolver;
 import com.codibly.services.WeatherService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = WeatherController.class)
+@Import({NdjsonStreamWriter.class, CachedResponseWriter.class, ResponseBytesCache.class, CoordinateResolver.class})
+@EnableConfigurationProperties({CacheProperties.class, GridProperties.class})
 class WeatherControllerTest {
 
     private static final String WEATHER_FORECAST_ENDPOINT = "/weather/forecast";
     private static final String WEATHER_SUMMARY_ENDPOINT = "/weather/summary";
+    private static final String WEATHER_FORECAST_BATCH_ENDPOINT = "/weather/forecast/batch";
+    private static final String WEATHER_SUMMARY_BATCH_ENDPOINT = "/weather/summary/batch";
+    private static final String BATCH_REQUEST_BODY = """
+            {"locations": [{"latitude": 50.0, "longitude": 19.0}, {"latitude": 50.0, "longitude": 19.0}]}""";
+    private static final String NEW_LINE = "\n";
+    private static final String INVALID_BATCH_REQUEST_BODY = """
+            {"locations": [{"latitude": -999.0, "longitude": 19.0}]}""";
     private static final String PARAM_LATITUDE = "latitude";
     private static final String PARAM_LONGITUDE = "longitude";
     private static final String LATITUDE_OUT_OF_RANGE_ERROR = "Latitude must be >= -90";
@@ -34,6 +69,15 @@ class WeatherControllerTest {
     private static final String FIRST_MOCK_FORECAST_DATE = "2023-12-01";
     private static final String SECOND_MOCK_FORECAST_DATE = "2023-12-02";
     private static final double FIRST_MOCK_FORECAST_MAX_TEMP = 10.5;
+    private static final Duration FORECAST_FRESHNESS = Duration.ofMinutes(10);
+    private static final String FORECAST_CACHE_CONTROL = "max-age=600, public";
+    private static final int NOT_MODIFIED_CODE = 304;
+    private static final String OTHER_LATITUDE = "51.0";
+    private static final String GZIP_LATITUDE = "52.0";
+    private static final String ACCEPT_GZIP = "gzip, deflate, br";
+    private static final String GZIP = "gzip";
+    private static final String GZIP_ETAG_SUFFIX = "-gzip\"";
+    private static final String ERROR_FIELD = "\"error\"";
 
     @Autowired
     private MockMvc mockMvc;
@@ -41,6 +85,9 @@ class WeatherControllerTest {
     @MockitoBean
     private WeatherService weatherService;
 
+    @MockitoBean
+    private ForecastCache forecastCache;
+
     private List<WeatherForecastDTO> mockForecastList;
 
     @BeforeEach
@@ -63,18 +110,179 @@ class WeatherControllerTest {
         final double longitude = 19.0;
         final int expectedForecastDays = 2;
         //given
-        given(weatherService.getWeeklyForecast(latitude, longitude)).willReturn(mockForecastList);
+        given(weatherService.getWeeklyForecast(latitude, longitude))
+                .willReturn(CompletableFuture.completedFuture(mockForecastList));
+        given(weatherService.weeklyForecastFreshness(latitude, longitude)).willReturn(FORECAST_FRESHNESS);
 
-        //when/then
-        mockMvc.perform(get(WEATHER_FORECAST_ENDPOINT)
+        //when
+        MvcResult mvcResult = mockMvc.perform(get(WEATHER_FORECAST_ENDPOINT)
                         .param(PARAM_LATITUDE, VALID_LATITUDE)
                         .param(PARAM_LONGITUDE, VALID_LONGITUDE)
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, FORECAST_CACHE_CONTROL))
+                .andExpect(header().exists(HttpHeaders.ETAG))
                 .andExpect(jsonPath("$.length()").value(expectedForecastDays))
                 .andExpect(jsonPath("$[0].date").value(FIRST_MOCK_FORECAST_DATE))
                 .andExpect(jsonPath("$[0].maxTempC").value(FIRST_MOCK_FORECAST_MAX_TEMP))
-                .andExpect(jsonPath("$[1].date").value(SECOND_MOCK_FORECAST_DATE));
+                .andExpect(jsonPath("$[1].date").value(SECOND_MOCK_FORECAST_DATE))
+                .andExpect(jsonPath("$[1].maxTempC").isEmpty());
+    }
+
+    @Test
+    void getWeeklyForecastShouldAnswerNotModifiedForMatchingEtag() throws Exception {
+        final double latitude = 51.0;
+        final double longitude = 19.0;
+        //given
+        given(weatherService.getWeeklyForecast(latitude, longitude))
+                .willReturn(CompletableFuture.completedFuture(mockForecastList));
+        given(weatherService.weeklyForecastFreshness(latitude, longitude)).willReturn(FORECAST_FRESHNESS);
+        String etag = mockMvc.perform(asyncDispatch(mockMvc.perform(get(WEATHER_FORECAST_ENDPOINT)
+                                .param(PARAM_LATITUDE, OTHER_LATITUDE)
+                                .param(PARAM_LONGITUDE, VALID_LONGITUDE))
+                        .andReturn()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(get(WEATHER_FORECAST_ENDPOINT)
+                        .param(PARAM_LATITUDE, OTHER_LATITUDE)
+                        .param(PARAM_LONGITUDE, VALID_LONGITUDE)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().is(NOT_MODIFIED_CODE))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getWeeklySummaryShouldServeGzippedCopyToClientsAcceptingGzip() throws Exception {
+        final double latitude = 52.0;
+        final double longitude = 19.0;
+        //given
+        given(weatherService.getWeeklySummary(latitude, longitude))
+                .willReturn(CompletableFuture.completedFuture(WeatherSummaryDTO.builder().build()));
+        given(weatherService.weeklyForecastFreshness(latitude, longitude)).willReturn(FORECAST_FRESHNESS);
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(get(WEATHER_SUMMARY_ENDPOINT)
+                        .param(PARAM_LATITUDE, GZIP_LATITUDE)
+                        .param(PARAM_LONGITUDE, VALID_LONGITUDE)
+                        .header(HttpHeaders.ACCEPT_ENCODING, ACCEPT_GZIP))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, GZIP))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith(GZIP_ETAG_SUFFIX)));
+    }
+
+    @Test
+    void getWeeklyForecastsShouldReturnForecastPerLocation() throws Exception {
+        //given
+        given(weatherService.getWeeklyForecasts(anyList()))
+                .willReturn(CompletableFuture.completedFuture(List.of(LocationForecastDTO.builder()
+                        .latitude(Double.parseDouble(VALID_LATITUDE))
+                        .longitude(Double.parseDouble(VALID_LONGITUDE))
+                        .forecast(mockForecastList)
+                        .build())));
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(post(WEATHER_FORECAST_BATCH_ENDPOINT)
+                        .content(BATCH_REQUEST_BODY)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].latitude").value(Double.parseDouble(VALID_LATITUDE)))
+                .andExpect(jsonPath("$[0].forecast.length()").value(mockForecastList.size()))
+                .andExpect(jsonPath("$[0].forecast[0].date").value(FIRST_MOCK_FORECAST_DATE));
+    }
+
+    @Test
+    void streamWeeklyForecastsShouldWriteOneJsonLinePerLocation() throws Exception {
+        final int expectedStreamedLines = 2;
+        //given
+        given(weatherService.getWeeklyForecastChunks(anyList()))
+                .willReturn(List.of(new LocationChunk<>(List.of(location(), location()),
+                        CompletableFuture.completedFuture(List.of(
+                                LocationForecastDTO.builder().forecast(mockForecastList).build(),
+                                LocationForecastDTO.builder().forecast(List.of()).build())))));
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(post(WEATHER_FORECAST_BATCH_ENDPOINT)
+                        .content(BATCH_REQUEST_BODY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split(NEW_LINE);
+        assertEquals(expectedStreamedLines, lines.length);
+        assertTrue(lines[0].contains(FIRST_MOCK_FORECAST_DATE));
+    }
+
+    @Test
+    void streamWeeklyForecastsShouldWriteErrorLinesForFailedChunk() throws Exception {
+        final int expectedStreamedLines = 2;
+        //given
+        given(weatherService.getWeeklyForecastChunks(anyList()))
+                .willReturn(List.of(
+                        new LocationChunk<>(List.of(location()), CompletableFuture.completedFuture(List.of(
+                                LocationForecastDTO.builder().forecast(mockForecastList).build()))),
+                        new LocationChunk<>(List.of(location()),
+                                CompletableFuture.failedFuture(new CircuitBreakerOpenException()))));
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(post(WEATHER_FORECAST_BATCH_ENDPOINT)
+                        .content(BATCH_REQUEST_BODY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split(NEW_LINE);
+        assertEquals(expectedStreamedLines, lines.length);
+        assertTrue(lines[0].contains(FIRST_MOCK_FORECAST_DATE));
+        assertTrue(lines[1].contains(ERROR_FIELD));
+        assertTrue(lines[1].contains(VALID_LATITUDE));
+    }
+
+    @Test
+    void getWeeklySummariesShouldFailWithInvalidLocation() throws Exception {
+        //when/then
+        mockMvc.perform(post(WEATHER_SUMMARY_BATCH_ENDPOINT)
+                        .content(INVALID_BATCH_REQUEST_BODY)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(BAD_REQUEST_CODE));
     }
 
     @Test
@@ -100,4 +308,8 @@ class WeatherControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.status").value(BAD_REQUEST_CODE));
     }
+
+    private LocationDTO location() {
+        return new LocationDTO(Double.parseDouble(VALID_LATITUDE), Double.parseDouble(VALID_LONGITUDE));
+    }
 }
@@ -0,0 +1,131 @@
+package com.codibly.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class WeatherControllerTracingIntegrationTest {
+
+    private static final String FORECAST_PATH = "/v1/forecast";
+    private static final String TRACES_PATH = "/v1/traces";
+    private static final String FORECAST_RESOURCE = "/open-meteo/two-day-forecast.json";
+    private static final int OK = 200;
+    private static final int FLUSH_TIMEOUT_SECONDS = 10;
+    private static final ByteArrayOutputStream EXPORTED_SPANS = new ByteArrayOutputStream();
+    private static final HttpServer UPSTREAM_AND_COLLECTOR = startUpstreamAndCollector();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @DynamicPropertySource
+    static void tracingProperties(DynamicPropertyRegistry registry) {
+        String baseUrl = "http://127.0.0.1:" + UPSTREAM_AND_COLLECTOR.getAddress().getPort();
+
+        registry.add("weather.upstream.base-url", () -> baseUrl + FORECAST_PATH);
+        registry.add("management.otlp.tracing.endpoint", () -> baseUrl + TRACES_PATH);
+        registry.add("management.tracing.sampling.probability", () -> "1.0");
+    }
+
+    @AfterAll
+    static void stopUpstreamAndCollector() {
+        UPSTREAM_AND_COLLECTOR.stop(0);
+    }
+
+    @Test
+    void getWeeklySummaryShouldExportSpansForUpstreamCallParsingAndAggregation() throws Exception {
+        //given
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/weather/summary")
+                        .param("latitude", "50.0")
+                        .param("longitude", "19.0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+
+        //when
+        tracerProvider.forceFlush().join(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        //then
+        String exportedSpans = exportedSpans();
+        assertTrue(exportedSpans.contains("http get /weather/summary"));
+        assertTrue(exportedSpans.contains("weather.service.requests"));
+        assertTrue(exportedSpans.contains("weather.upstream.fetch"));
+        assertTrue(exportedSpans.contains("weather.upstream.calls"));
+        assertTrue(exportedSpans.contains("weather.upstream.parse"));
+        assertTrue(exportedSpans.contains("weather.service.mapping"));
+        assertTrue(exportedSpans.contains("weather.latitude"));
+        assertTrue(exportedSpans.contains("weather.start_date"));
+    }
+
+    private static String exportedSpans() {
+        synchronized (EXPORTED_SPANS) {
+            // protobuf keeps span names and attribute keys as plain UTF-8, which is all this test looks for
+            return EXPORTED_SPANS.toString(StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private static HttpServer startUpstreamAndCollector() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext(FORECAST_PATH, WeatherControllerTracingIntegrationTest::serveForecast);
+            server.createContext(TRACES_PATH, WeatherControllerTracingIntegrationTest::collectSpans);
+            server.start();
+            return server;
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    private static void serveForecast(HttpExchange exchange) throws IOException {
+        try (InputStream forecast = WeatherControllerTracingIntegrationTest.class
+                .getResourceAsStream(FORECAST_RESOURCE)) {
+            respond(exchange, forecast.readAllBytes());
+        }
+    }
+
+    private static void collectSpans(HttpExchange exchange) throws IOException {
+        byte[] spans = exchange.getRequestBody().readAllBytes();
+
+        synchronized (EXPORTED_SPANS) {
+            EXPORTED_SPANS.write(spans);
+        }
+        respond(exchange, new byte[0]);
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(OK, body.length == 0 ? -1 : body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.codibly.enums;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WeatherCodeTest {
+
+    private static final int UNDEFINED_CODE = 42;
+    private static final int NEGATIVE_CODE = -1;
+    private static final int OUT_OF_RANGE_CODE = 100;
+
+    @Test
+    void getCategoryForCodeShouldReturnCategoryOfEveryDefinedCode() {
+        //when/then
+        for (WeatherCode weatherCode : WeatherCode.values()) {
+            assertEquals(weatherCode.getCategory(), WeatherCode.getCategoryForCode(weatherCode.getCode()));
+        }
+    }
+
+    @Test
+    void getCategoryForCodeShouldReturnUnknownForUndefinedCodes() {
+        //when/then
+        assertEquals(WeatherCategory.UNKNOWN, WeatherCode.getCategoryForCode(UNDEFINED_CODE));
+        assertEquals(WeatherCategory.UNKNOWN, WeatherCode.getCategoryForCode(NEGATIVE_CODE));
+        assertEquals(WeatherCategory.UNKNOWN, WeatherCode.getCategoryForCode(OUT_OF_RANGE_CODE));
+    }
+}
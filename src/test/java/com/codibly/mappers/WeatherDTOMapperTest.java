@@ -0,0 +1,95 @@
+package com.codibly.mappers;
+
+import com.codibly.dtos.WeatherDTO;
+import com.codibly.dtos.WeatherSummaryDTO;
+import com.codibly.enums.WeatherCategory;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WeatherDTOMapperTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.parse("2024-12-30");
+    private static final int OVERCAST_CODE = 3;
+    private static final int RAIN_CODE = 61;
+    private static final int SNOW_CODE = 71;
+    private static final double COLDEST_MIN_TEMP = -12.4;
+    private static final double WARMEST_MAX_TEMP = -1.3;
+    private static final double TIED_PRESSURE = 1000.005;
+    private static final double ROUNDED_PRESSURE = 1000.01;
+    private static final double SUNSHINE_DURATION = 3600.0;
+    private static final double ROUNDED_AVERAGE_SUNSHINE = 2400.0;
+
+    private final WeatherDTOMapper weatherDTOMapper = new WeatherDTOMapper();
+
+    @Test
+    void toSummaryDTOShouldHandleAllNegativeTemperaturesAndMissingValues() {
+        //given
+        List<WeatherDTO> weatherDataList = List.of(
+                weatherFor(FIRST_DAY, COLDEST_MIN_TEMP, -5.0, SNOW_CODE, SUNSHINE_DURATION),
+                weatherFor(FIRST_DAY.plusDays(1), -8.0, WARMEST_MAX_TEMP, SNOW_CODE, SUNSHINE_DURATION),
+                weatherFor(FIRST_DAY.plusDays(2), Double.NaN, Double.NaN, OVERCAST_CODE, Double.NaN));
+
+        //when
+        WeatherSummaryDTO summary = weatherDTOMapper.toSummaryDTO(weatherDataList);
+
+        //then
+        assertEquals(COLDEST_MIN_TEMP, summary.getLowestTemperatureCelsius());
+        assertEquals(WARMEST_MAX_TEMP, summary.getHighestTemperatureCelsius());
+        assertEquals(ROUNDED_AVERAGE_SUNSHINE, summary.getAvgSunshineDurationSeconds());
+        assertEquals(ROUNDED_PRESSURE, summary.getAvgPressureHPa());
+        assertEquals(WeatherCategory.SNOW.getDescription(), summary.getForecastSummary());
+    }
+
+    @Test
+    void combinedPartialStatisticsShouldMatchSinglePassSummary() {
+        //given
+        List<WeatherDTO> weatherDataList = List.of(
+                weatherFor(FIRST_DAY, -2.0, 4.0, RAIN_CODE, SUNSHINE_DURATION),
+                weatherFor(FIRST_DAY.plusDays(1), 1.0, 6.5, RAIN_CODE, 0.0),
+                weatherFor(FIRST_DAY.plusDays(2), -4.5, 2.0, OVERCAST_CODE, SUNSHINE_DURATION));
+        WeatherSummaryStatistics firstPartition = new WeatherSummaryStatistics();
+        WeatherSummaryStatistics secondPartition = new WeatherSummaryStatistics();
+
+        //when
+        firstPartition.accept(weatherDataList.get(0));
+        secondPartition.accept(weatherDataList.get(1));
+        secondPartition.accept(weatherDataList.get(2));
+        WeatherSummaryDTO combined = weatherDTOMapper.toSummaryDTO(firstPartition.combine(secondPartition));
+        WeatherSummaryDTO singlePass = weatherDTOMapper.toSummaryDTO(weatherDataList);
+
+        //then
+        assertEquals(singlePass.getAvgPressureHPa(), combined.getAvgPressureHPa());
+        assertEquals(singlePass.getAvgSunshineDurationSeconds(), combined.getAvgSunshineDurationSeconds());
+        assertEquals(singlePass.getLowestTemperatureCelsius(), combined.getLowestTemperatureCelsius());
+        assertEquals(singlePass.getHighestTemperatureCelsius(), combined.getHighestTemperatureCelsius());
+        assertEquals(WeatherCategory.RAIN.getDescription(), combined.getForecastSummary());
+    }
+
+    @Test
+    void toSummaryDTOShouldReturnDefaultsForEmptyList() {
+        //when
+        WeatherSummaryDTO summary = weatherDTOMapper.toSummaryDTO(List.of());
+
+        //then
+        assertEquals(0.0, summary.getAvgPressureHPa());
+        assertEquals(0.0, summary.getLowestTemperatureCelsius());
+        assertEquals(0.0, summary.getHighestTemperatureCelsius());
+        assertEquals(String.valueOf(WeatherCategory.UNKNOWN), summary.getForecastSummary());
+    }
+
+    private WeatherDTO weatherFor(LocalDate date, double minTemp, double maxTemp, int weatherCode,
+                                  double sunshineDuration) {
+        return WeatherDTO.builder()
+                .date(date)
+                .minTemp(minTemp)
+                .maxTemp(maxTemp)
+                .weatherCodes(new int[]{weatherCode})
+                .sunshineDuration(sunshineDuration)
+                .dailyPressure(new double[]{TIED_PRESSURE, Double.NaN, TIED_PRESSURE})
+                .build();
+    }
+}
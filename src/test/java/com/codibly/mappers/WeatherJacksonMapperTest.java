@@ -0,0 +1,125 @@
+package com.codibly.mappers;
+
+import com.codibly.config.JacksonConfig;
+import com.codibly.dtos.WeatherDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeatherJacksonMapperTest {
+
+    private static final String TWO_DAY_FORECAST = "/open-meteo/two-day-forecast.json";
+    private static final String INVALID_JSON = "{ not json";
+    private static final LocalDate FIRST_DAY = LocalDate.parse("2024-12-30");
+    private static final LocalDate SECOND_DAY = LocalDate.parse("2024-12-31");
+    private static final int EXPECTED_DAYS = 2;
+    private static final int EXPECTED_LOCATIONS = 2;
+    private static final int HOURS_IN_A_DAY = 24;
+    private static final double FIRST_DAY_MAX_TEMP = 4.2;
+    private static final double SECOND_DAY_MIN_TEMP = 0.6;
+    private static final double SECOND_DAY_FIRST_PRESSURE = 1016.8;
+    private static final int SECOND_DAY_WEATHER_CODE = 61;
+
+    private WeatherJacksonMapper weatherJacksonMapper;
+
+    @BeforeEach
+    void setUp() {
+        weatherJacksonMapper = new WeatherJacksonMapper(new JacksonConfig().objectMapper());
+    }
+
+    @Test
+    void mapWeatherRangeShouldSplitDailyAndHourlyArraysPerDay() throws IOException {
+        //given
+        byte[] weatherJson = readResource(TWO_DAY_FORECAST);
+
+        //when
+        List<WeatherDTO> result = weatherJacksonMapper.mapWeatherRange(weatherJson);
+
+        //then
+        assertEquals(EXPECTED_DAYS, result.size());
+
+        WeatherDTO firstDay = result.get(0);
+        assertEquals(FIRST_DAY, firstDay.getDate());
+        assertEquals(FIRST_DAY_MAX_TEMP, firstDay.getMaxTemp());
+        assertEquals(HOURS_IN_A_DAY, firstDay.getDailyPressure().length);
+
+        WeatherDTO secondDay = result.get(1);
+        assertEquals(SECOND_DAY, secondDay.getDate());
+        assertArrayEquals(new int[]{SECOND_DAY_WEATHER_CODE}, secondDay.getWeatherCodes());
+        assertEquals(SECOND_DAY_MIN_TEMP, secondDay.getMinTemp());
+        assertEquals(HOURS_IN_A_DAY, secondDay.getDailyPressure().length);
+        assertEquals(SECOND_DAY_FIRST_PRESSURE, secondDay.getDailyPressure()[0]);
+    }
+
+    @Test
+    void mapWeatherShouldReturnFirstDayOfResponse() throws IOException {
+        //given
+        byte[] weatherJson = readResource(TWO_DAY_FORECAST);
+
+        //when
+        WeatherDTO result = weatherJacksonMapper.mapWeather(weatherJson);
+
+        //then
+        assertNotNull(result);
+        assertEquals(FIRST_DAY, result.getDate());
+        assertEquals(HOURS_IN_A_DAY, result.getDailyPressure().length);
+    }
+
+    @Test
+    void mapWeatherLocationsShouldReadTopLevelArrayInRequestOrder() throws IOException {
+        //given
+        String forecast = new String(readResource(TWO_DAY_FORECAST), StandardCharsets.UTF_8);
+        byte[] weatherJson = ("[" + forecast + "," + forecast + "]").getBytes(StandardCharsets.UTF_8);
+
+        //when
+        List<List<WeatherDTO>> result = weatherJacksonMapper.mapWeatherLocations(weatherJson);
+
+        //then
+        assertEquals(EXPECTED_LOCATIONS, result.size());
+        result.forEach(locationWeather -> {
+            assertEquals(EXPECTED_DAYS, locationWeather.size());
+            assertEquals(SECOND_DAY, locationWeather.get(1).getDate());
+        });
+    }
+
+    @Test
+    void mapWeatherLocationsShouldTreatSingleObjectAsOneLocation() throws IOException {
+        //given
+        byte[] weatherJson = readResource(TWO_DAY_FORECAST);
+
+        //when
+        List<List<WeatherDTO>> result = weatherJacksonMapper.mapWeatherLocations(weatherJson);
+
+        //then
+        assertEquals(1, result.size());
+        assertEquals(EXPECTED_DAYS, result.get(0).size());
+    }
+
+    @Test
+    void mapWeatherRangeShouldReturnEmptyListForInvalidJson() {
+        //when
+        List<WeatherDTO> result = weatherJacksonMapper.mapWeatherRange(
+                INVALID_JSON.getBytes(StandardCharsets.UTF_8));
+
+        //then
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+    }
+
+    private byte[] readResource(String path) throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream(path)) {
+            assertNotNull(inputStream);
+            return inputStream.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.codibly.services;
+
+import com.codibly.config.CacheProperties;
+import com.codibly.config.GridProperties;
+import com.codibly.dtos.LocationDTO;
+import com.codibly.dtos.WeatherDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoordinateResolverTest {
+
+    private static final double LATITUDE = 50.04968;
+    private static final double LONGITUDE = 19.944544;
+    private static final double NEARBY_LATITUDE = 50.0511;
+    private static final double SNAPPED_LATITUDE = 50.05;
+    private static final double SNAPPED_LONGITUDE = 19.94;
+    private static final double MODEL_LATITUDE = 50.06;
+    private static final double MODEL_LONGITUDE = 19.96;
+
+    private GridProperties gridProperties;
+    private CoordinateResolver coordinateResolver;
+
+    @BeforeEach
+    void setUp() {
+        gridProperties = new GridProperties();
+        coordinateResolver = new CoordinateResolver(gridProperties, new CacheProperties());
+    }
+
+    @Test
+    void resolveShouldSnapNearbyCoordinatesToTheSameCell() {
+        //when
+        LocationDTO resolved = coordinateResolver.resolve(LATITUDE, LONGITUDE);
+        LocationDTO nearbyResolved = coordinateResolver.resolve(NEARBY_LATITUDE, LONGITUDE);
+
+        //then
+        assertEquals(new LocationDTO(SNAPPED_LATITUDE, SNAPPED_LONGITUDE), resolved);
+        assertEquals(resolved, nearbyResolved);
+    }
+
+    @Test
+    void resolveShouldPreferLearnedModelCoordinates() {
+        //given
+        Optional<LocationDTO> learned = coordinateResolver.learn(LATITUDE, LONGITUDE, List.of(echoedWeather()));
+
+        //when
+        LocationDTO resolved = coordinateResolver.resolve(NEARBY_LATITUDE, LONGITUDE);
+
+        //then
+        LocationDTO modelPoint = new LocationDTO(MODEL_LATITUDE, MODEL_LONGITUDE);
+        assertEquals(Optional.of(modelPoint), learned);
+        assertEquals(modelPoint, resolved);
+        assertEquals(modelPoint, coordinateResolver.resolve(MODEL_LATITUDE, MODEL_LONGITUDE));
+        assertTrue(coordinateResolver.learn(NEARBY_LATITUDE, LONGITUDE, List.of(echoedWeather())).isEmpty());
+    }
+
+    @Test
+    void resolveShouldKeepCoordinatesWhenGridIsDisabled() {
+        //given
+        gridProperties.setEnabled(false);
+
+        //when
+        LocationDTO resolved = coordinateResolver.resolve(LATITUDE, LONGITUDE);
+
+        //then
+        assertEquals(new LocationDTO(LATITUDE, LONGITUDE), resolved);
+        assertTrue(coordinateResolver.learn(LATITUDE, LONGITUDE, List.of(echoedWeather())).isEmpty());
+    }
+
+    private WeatherDTO echoedWeather() {
+        return WeatherDTO.builder()
+                .latitude(MODEL_LATITUDE)
+                .longitude(MODEL_LONGITUDE)
+                .build();
+    }
+}